@@ -1,7 +1,13 @@
+import service.PlannerServer;
 import ui.DegreePlannerUI;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // "serve [port]" starts the headless HTTP service instead of the interactive planner
+        if (args.length > 0 && args[0].equalsIgnoreCase("serve")) {
+            PlannerServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         DegreePlannerUI.main(args);
     }
 }
\ No newline at end of file
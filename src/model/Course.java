@@ -1,22 +1,69 @@
 package model;
 
+import java.util.AbstractList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 public class Course {
-    private final String courseId; // eg CIS 1200
-    private final String name; // eg Programming Languages and Techniques I
+    private final long courseId; // Packed eg CIS 1200, see CourseIds
+    private final String name; // eg Programming Languages and Techniques I, shared through NameTable
 
-    // Represents prerequisite conditions
-    private final List<List<String>> prerequisites;
+    // Represents prerequisite conditions as packed IDs, one OR group after another
+    private final long[] prerequisiteIds;
+    private final int[] groupEnds; // End offset in prerequisiteIds of each OR group
+
+    // Read-only view over the packed IDs, created on first use (see getPrerequisites)
+    private List<List<String>> prerequisites;
+
+    private final double units; // Course units (credits), eg 1.0 or 0.5 for a lab
+
+    // Used when the catalog doesn't list a credit value
+    public static final double DEFAULT_UNITS = 1.0;
+
+    private static final long[] NO_PREREQUISITE_IDS = new long[0];
+    private static final int[] NO_GROUPS = new int[0];
 
     public Course(String courseId, String name, List<List<String>> prerequisites) {
-        this.courseId = Objects.requireNonNull(courseId, "Course ID cannot be null");
-        this.name = Objects.requireNonNull(name, "Course name cannot be null");
-        this.prerequisites = Objects.requireNonNull(prerequisites, "Prerequisites list cannot be null");
+        this(courseId, name, prerequisites, DEFAULT_UNITS);
+    }
+
+    public Course(String courseId, String name, List<List<String>> prerequisites, double units) {
+        this.courseId = CourseIds.pack(Objects.requireNonNull(courseId, "Course ID cannot be null"));
+        this.name = NameTable.intern(Objects.requireNonNull(name, "Course name cannot be null"));
+        Objects.requireNonNull(prerequisites, "Prerequisites list cannot be null");
+        if (units < 0 || Double.isNaN(units)) {
+            throw new IllegalArgumentException("Course units cannot be negative");
+        }
+        this.units = units;
+
+        if (prerequisites.isEmpty()) {
+            this.prerequisiteIds = NO_PREREQUISITE_IDS;
+            this.groupEnds = NO_GROUPS;
+        } else {
+            int total = 0;
+            for (List<String> orGroup : prerequisites) {
+                total += orGroup.size();
+            }
+            this.prerequisiteIds = new long[total];
+            this.groupEnds = new int[prerequisites.size()];
+            int offset = 0;
+            for (int g = 0; g < prerequisites.size(); g++) {
+                for (String prereqId : prerequisites.get(g)) {
+                    prerequisiteIds[offset++] = CourseIds.pack(prereqId);
+                }
+                groupEnds[g] = offset;
+            }
+        }
     }
 
     public String getCourseId() {
+        return CourseIds.unpack(courseId);
+    }
+
+    // The packed form of the course ID, see CourseIds
+    public long getPackedId() {
         return courseId;
     }
 
@@ -24,6 +71,10 @@ public class Course {
         return name;
     }
 
+    public double getUnits() {
+        return units;
+    }
+
     /**
      * Returns the prerequisite structure for this course
      * The outer list signifies an AND relationship between prerequisite groups
@@ -31,15 +82,69 @@ public class Course {
      * group
      * An empty outer list means no prerequisites
      * An inner list with a single course ID means that specific course is required
+     * The lists are read-only views over the packed prerequisite IDs, created
+     * on first use and then reused, so callers can loop over them without allocating
      */
     public List<List<String>> getPrerequisites() {
-        return prerequisites;
+        // Racy single check: the view is immutable, so a duplicate built by another thread is harmless
+        List<List<String>> view = prerequisites;
+        if (view == null) {
+            view = groupEnds.length == 0 ? Collections.emptyList() : new PrerequisiteView(prerequisiteIds, groupEnds);
+            prerequisites = view;
+        }
+        return view;
+    }
+
+    // The AND list of OR groups, one group view per group
+    private static final class PrerequisiteView extends AbstractList<List<String>> implements RandomAccess {
+        private final GroupView[] groups;
+
+        PrerequisiteView(long[] ids, int[] groupEnds) {
+            groups = new GroupView[groupEnds.length];
+            for (int g = 0; g < groupEnds.length; g++) {
+                groups[g] = new GroupView(ids, g == 0 ? 0 : groupEnds[g - 1], groupEnds[g]);
+            }
+        }
+
+        @Override
+        public List<String> get(int group) {
+            return groups[group];
+        }
+
+        @Override
+        public int size() {
+            return groups.length;
+        }
+    }
+
+    // One OR group, a slice of the packed ID array resolved through CourseIds
+    private static final class GroupView extends AbstractList<String> implements RandomAccess {
+        private final long[] ids;
+        private final int start;
+        private final int end;
+
+        GroupView(long[] ids, int start, int end) {
+            this.ids = ids;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, end - start);
+            return CourseIds.unpack(ids[start + index]);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
     }
 
     @Override
     public String toString() {
         // Omitting full prerequisite details for brevity
-        return courseId + ": " + name + (prerequisites.isEmpty() ? "" : " | Has Prerequisites");
+        return getCourseId() + ": " + name + (groupEnds.length == 0 ? "" : " | Has Prerequisites");
     }
 
     @Override
@@ -50,11 +155,11 @@ public class Course {
             return false;
         Course course = (Course) o;
         // Courses are uniquely identified by their ID
-        return courseId.equals(course.courseId);
+        return courseId == course.courseId;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(courseId);
+        return Long.hashCode(courseId);
     }
-}
\ No newline at end of file
+}
@@ -11,53 +11,117 @@ import java.util.regex.Pattern;
 
 public class CourseDataLoader {
 
-    private static final String BASE_URL = "https://catalog.upenn.edu";
+    public static final String DEFAULT_BASE_URL = "https://catalog.upenn.edu";
+
+    // Catalog site every page is read from, overridable with -Dcatalog.baseUrl for offline runs
+    private static volatile String baseUrl = initialBaseUrl();
+
+    private static final Pattern UNITS_PATTERN = Pattern.compile("\\d*\\.?\\d+");
+
+    // Program page path for every supported BSE major, keyed by lowercase major code
+    private static final Map<String, String> MAJOR_PROGRAM_PATHS = new LinkedHashMap<>();
+
+    static {
+        MAJOR_PROGRAM_PATHS.put("arin", "artificial-intelligence-bse//");
+        MAJOR_PROGRAM_PATHS.put("be", "bioengineering-bse//");
+        MAJOR_PROGRAM_PATHS.put("cbe", "chemical-biomolecular-engineering-bse/");
+        MAJOR_PROGRAM_PATHS.put("cmpe", "computer-engineering-bse/");
+        MAJOR_PROGRAM_PATHS.put("csci", "computer-science-bse/");
+        MAJOR_PROGRAM_PATHS.put("dmd", "digital-media-design-bse/");
+        MAJOR_PROGRAM_PATHS.put("ee", "electrical-engineering-bse/");
+        MAJOR_PROGRAM_PATHS.put("mse", "materials-science-engineering-bse/");
+        MAJOR_PROGRAM_PATHS.put("meam", "mechanical-engineering-applied-mechanics-bse/");
+        MAJOR_PROGRAM_PATHS.put("nets", "networked-social-systems-engineering-bse/");
+        MAJOR_PROGRAM_PATHS.put("sse", "systems-science-engineering-bse/");
+    }
+
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // Points every loader method at another catalog site, eg a local MockCatalogServer
+    public static void setBaseUrl(String url) {
+        baseUrl = normalizeBaseUrl(url);
+    }
+
+    // A malformed -Dcatalog.baseUrl falls back to the real catalog instead of failing class initialization
+    private static String initialBaseUrl() {
+        String configured = System.getProperty("catalog.baseUrl");
+        if (configured == null) {
+            return DEFAULT_BASE_URL;
+        }
+        try {
+            return normalizeBaseUrl(configured);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: Ignoring catalog.baseUrl '" + configured + "' (" + e.getMessage()
+                    + "), using " + DEFAULT_BASE_URL);
+            return DEFAULT_BASE_URL;
+        }
+    }
+
+    private static String normalizeBaseUrl(String url) {
+        String trimmed = Objects.requireNonNull(url, "Base URL cannot be null").trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        if (!trimmed.startsWith("http://") && !trimmed.startsWith("https://")) {
+            throw new IllegalArgumentException("Base URL must start with http:// or https://");
+        }
+        return trimmed;
+    }
+
+    // Returns the supported major codes in uppercase, eg CSCI
+    public static List<String> getSupportedMajors() {
+        List<String> majors = new ArrayList<>();
+        for (String code : MAJOR_PROGRAM_PATHS.keySet()) {
+            majors.add(code.toUpperCase());
+        }
+        return majors;
+    }
 
     public static List<Course> findCoursesAndPrereqsInMajor(String departmentCode) throws IOException {
-        String url = BASE_URL + "/undergraduate/programs/";
-
-        switch (departmentCode.toLowerCase()) {
-            case "arin":
-                url += "artificial-intelligence-bse//";
-                break;
-            case "be":
-                url += "bioengineering-bse//";
-                break;
-            case "cbe":
-                url += "chemical-biomolecular-engineering-bse/";
-                break;
-            case "cmpe":
-                url += "computer-engineering-bse/";
-                break;
-            case "csci":
-                url += "computer-science-bse/";
-                break;
-            case "dmd":
-                url += "digital-media-design-bse/";
-                break;
-            case "ee":
-                url += "electrical-engineering-bse/";
-                break;
-            case "mse":
-                url += "materials-science-engineering-bse/";
-                break;
-            case "meam":
-                url += "mechanical-engineering-applied-mechanics-bse/";
-                break;
-            case "nets":
-                url += "networked-social-systems-engineering-bse/";
-                break;
-            case "sse":
-                url += "systems-science-engineering-bse/";
-                break;
-            default:
-                System.out.println("Invalid department code. Please try again.");
-                return Collections.emptyList();
+        String url = programUrl(departmentCode);
+        if (url == null) {
+            System.out.println("Invalid department code. Please try again.");
+            return Collections.emptyList();
         }
 
         ArrayList<Course> courseList = new ArrayList<>();
+        for (CourseListing listing : parseProgramPage(fetchPage(url), url)) {
+            List<List<String>> prerequisites = findPrerequisites(listing.getCourseUrl());
+            courseList.add(listing.toCourse(prerequisites));
+        }
+        return courseList;
+    }
 
-        Document doc = Jsoup.connect(url).get();
+    // Program page URL for a major, or null if the major isn't supported
+    public static String programUrl(String majorCode) {
+        String programPath = MAJOR_PROGRAM_PATHS.get(majorCode.trim().toLowerCase());
+        if (programPath == null) {
+            return null;
+        }
+        return baseUrl + "/undergraduate/programs/" + programPath;
+    }
+
+    // Course listing page URL for a department code such as CIS
+    public static String departmentUrl(String departmentCode) {
+        return baseUrl + "/courses/" + departmentCode.toLowerCase() + "/";
+    }
+
+    // Fetch stage: downloads a catalog page without parsing it, so parsing can run on another thread
+    public static String fetchPage(String url) throws IOException {
+        return Jsoup.connect(url).execute().body();
+    }
+
+    /**
+     * Parse stage for a program page: returns every course row that still needs
+     * its own page fetched for prerequisites. Senior design courses are skipped
+     * here, before any of their pages are requested.
+     */
+    public static List<CourseListing> parseProgramPage(String html, String pageUrl) {
+        List<CourseListing> listings = new ArrayList<>();
+
+        Document doc = Jsoup.parse(html, pageUrl);
         Elements majorTable = doc.select(".sc_courselist");
 
         Elements rows = majorTable.select("tr.odd,tr.even");
@@ -65,6 +129,7 @@ public class CourseDataLoader {
             Element creditColumn = row.select("td.hourscol").first();
             if (creditColumn != null) {
                 if (creditColumn.text() != null && !creditColumn.text().isEmpty()) {
+                    double units = parseUnits(creditColumn.text());
 
                     // Attempt to get the primary course name for this row first
                     String primaryCourseNameForRow = "";
@@ -94,9 +159,7 @@ public class CourseDataLoader {
                                 if (courseLink != null && courseLink.hasAttr("href")
                                         && courseLink.attr("href").contains("/search/?P=")) {
                                     String courseLinkHref = courseLink.attr("href");
-                                    String courseUrl = BASE_URL + courseLinkHref;
-
-                                    List<List<String>> prerequisites = findPrerequisites(courseUrl);
+                                    String courseUrl = baseUrl + courseLinkHref;
 
                                     String courseId = courseLink.text().replace("\u00a0", " ").trim();
                                     String courseName = primaryCourseNameForRow; // Start with the name found for the
@@ -131,8 +194,7 @@ public class CourseDataLoader {
                                         continue;
                                     }
 
-                                    Course courseToAdd = new Course(courseId, courseName, prerequisites);
-                                    courseList.add(courseToAdd);
+                                    listings.add(new CourseListing(courseId, courseName, units, courseUrl));
                                 }
                             }
                         }
@@ -140,14 +202,19 @@ public class CourseDataLoader {
                 }
             }
         }
-        return courseList;
+        return listings;
     }
 
     // Finds the prerequisites for a course
     public static List<List<String>> findPrerequisites(String courseUrl) throws IOException {
+        return parsePrerequisites(fetchPage(courseUrl), courseUrl);
+    }
+
+    // Parse stage for a single course page
+    public static List<List<String>> parsePrerequisites(String html, String pageUrl) {
         List<List<String>> prerequisites = new ArrayList<>();
 
-        Document courseDoc = Jsoup.connect(courseUrl).get();
+        Document courseDoc = Jsoup.parse(html, pageUrl);
         Element courseBlock = courseDoc.selectFirst(".courseblock");
         if (courseBlock != null) {
             Elements descElements = courseBlock.select(".courseblockextra");
@@ -217,8 +284,13 @@ public class CourseDataLoader {
 
     // Finds the prerequisites for all courses in a given department
     public static List<Course> loadCoursesForDepartment(String departmentCode) throws IOException {
-        String url = BASE_URL + "/courses/" + departmentCode.toLowerCase() + "/";
-        Document doc = Jsoup.connect(url).get();
+        String url = departmentUrl(departmentCode);
+        return parseDepartmentPage(fetchPage(url), url);
+    }
+
+    // Parse stage for a department's course listing page
+    public static List<Course> parseDepartmentPage(String html, String pageUrl) {
+        Document doc = Jsoup.parse(html, pageUrl);
 
         List<Course> courseList = new ArrayList<>();
 
@@ -286,6 +358,15 @@ public class CourseDataLoader {
         return courseList;
     }
 
+    // Parses the course units from a credit column such as "1", "0.5" or "1-1.5" (first value wins)
+    static double parseUnits(String creditText) {
+        Matcher matcher = UNITS_PATTERN.matcher(creditText);
+        if (matcher.find()) {
+            return Double.parseDouble(matcher.group());
+        }
+        return Course.DEFAULT_UNITS;
+    }
+
     // Parses the prerequisites from the description to find the course codes
     private static List<List<String>> extractPrerequisites(String description) {
         List<List<String>> prereqs = new ArrayList<>();
@@ -316,6 +397,41 @@ public class CourseDataLoader {
         return prereqs;
     }
 
+    // A course row from a program page, before its own page has been fetched for prerequisites
+    public static final class CourseListing {
+        private final String courseId;
+        private final String courseName;
+        private final double units;
+        private final String courseUrl;
+
+        CourseListing(String courseId, String courseName, double units, String courseUrl) {
+            this.courseId = courseId;
+            this.courseName = courseName;
+            this.units = units;
+            this.courseUrl = courseUrl;
+        }
+
+        public String getCourseId() {
+            return courseId;
+        }
+
+        public String getCourseName() {
+            return courseName;
+        }
+
+        public double getUnits() {
+            return units;
+        }
+
+        public String getCourseUrl() {
+            return courseUrl;
+        }
+
+        public Course toCourse(List<List<String>> prerequisites) {
+            return new Course(courseId, courseName, prerequisites, units);
+        }
+    }
+
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
         System.out.println("Enter BSE major (ex. CSCI, BE, etc.):");
@@ -0,0 +1,80 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rough heap comparison between the compact Course layout and the old one that
+ * kept a String ID, String name and nested lists of ID strings per course.
+ * Usage: java model.CourseFootprint [courses] (default 100000)
+ */
+public class CourseFootprint {
+    private static final String[] DEPARTMENTS = { "CIS", "NETS", "MATH", "ESE", "STAT", "PHYS", "EAS" };
+
+    // The previous representation of a course, kept only for this comparison
+    private static final class LegacyCourse {
+        private final String courseId;
+        private final String name;
+        private final List<List<String>> prerequisites;
+
+        LegacyCourse(String courseId, String name, List<List<String>> prerequisites) {
+            this.courseId = courseId;
+            this.name = name;
+            this.prerequisites = prerequisites;
+        }
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        long before = usedMemory();
+        List<LegacyCourse> legacy = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Fresh strings, as the scraper produces for every page it parses
+            legacy.add(new LegacyCourse(new String(id(i)), new String(name(i)), prerequisites(i)));
+        }
+        long legacyBytes = usedMemory() - before;
+        System.out.println("Legacy courses: " + legacy.size());
+        legacy = null;
+
+        before = usedMemory();
+        List<Course> compact = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            compact.add(new Course(new String(id(i)), new String(name(i)), prerequisites(i)));
+        }
+        long compactBytes = usedMemory() - before;
+        System.out.println("Compact courses: " + compact.size());
+
+        System.out.printf("Legacy:  %.1f bytes/course%n", (double) legacyBytes / count);
+        System.out.printf("Compact: %.1f bytes/course%n", (double) compactBytes / count);
+        System.out.println("Distinct IDs: " + CourseIds.size() + ", distinct names: " + NameTable.size());
+    }
+
+    // Course IDs cycle through a realistic catalog size, so the same course shows up
+    // in several majors
+    private static String id(int i) {
+        int course = i % 4000;
+        return DEPARTMENTS[course % DEPARTMENTS.length] + " " + (1000 + course);
+    }
+
+    private static String name(int i) {
+        return "Introduction to Topic " + (i % 4000);
+    }
+
+    private static List<List<String>> prerequisites(int i) {
+        List<List<String>> groups = new ArrayList<>();
+        for (int g = 0; g < i % 3; g++) {
+            groups.add(new ArrayList<>(Arrays.asList(new String(id(i + g + 1)), new String(id(i + g + 7)))));
+        }
+        return groups;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,201 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Packs course IDs such as "CIS 1200" into a single long so courses and their
+ * prerequisite lists don't each carry their own copy of every ID string.
+ *
+ * Standard IDs (1 to 6 capital letters, a space, 1 to 5 digits) are encoded
+ * directly: 5 bits per department letter, 3 bits for the digit count (so
+ * leading zeros survive) and 17 bits for the number. Anything else, eg
+ * "Writing Seminar", gets the top bit set and an index into a shared symbol
+ * table. IDs registered through {@link #pack} decode to one shared String.
+ *
+ * The tables only grow, since symbol indices must stay valid for the life of
+ * the process. Only catalog courses are packed; request and plan text goes
+ * through {@link #lookup}, which never registers anything, so the tables stay
+ * bounded by the loaded catalogs.
+ */
+public final class CourseIds {
+    // Returned by lookup for an ID that has no packed form in this process
+    public static final long UNKNOWN = -1L;
+
+    private static final long SYMBOL_FLAG = 1L << 63;
+    private static final int NUMBER_BITS = 17;
+    private static final int DIGIT_COUNT_BITS = 3;
+    private static final int LETTER_BITS = 5;
+    private static final int MAX_LETTERS = 6;
+    private static final int MAX_DIGITS = 5;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final Map<String, Long> symbols = new ConcurrentHashMap<>();
+
+    // Open-addressed packed ID to String table. Readers probe without locking or
+    // boxing; writers copy on resize and publish through the volatile field.
+    private static volatile Entry[] decoded = new Entry[INITIAL_CAPACITY];
+    private static int decodedCount;
+
+    private CourseIds() {
+    }
+
+    // Returns the packed form of a course ID, registering it on first use
+    public static long pack(String courseId) {
+        long packed = packStandard(courseId);
+        if (packed != -1) {
+            if (find(decoded, packed) == null) {
+                register(packed, courseId);
+            }
+            return packed;
+        }
+        Long symbol = symbols.get(courseId);
+        if (symbol != null) {
+            return symbol;
+        }
+        synchronized (symbols) {
+            return symbols.computeIfAbsent(courseId, id -> {
+                long assigned = SYMBOL_FLAG | symbols.size();
+                register(assigned, id);
+                return assigned;
+            });
+        }
+    }
+
+    /**
+     * Returns the packed form of a course ID without registering it: standard
+     * IDs are encoded, other IDs only if a catalog already registered them, and
+     * anything else is {@link #UNKNOWN}.
+     */
+    public static long lookup(String courseId) {
+        long packed = packStandard(courseId);
+        if (packed != -1) {
+            return packed;
+        }
+        Long symbol = symbols.get(courseId);
+        return symbol != null ? symbol : UNKNOWN;
+    }
+
+    // Returns the String for a packed ID, shared if the ID was registered
+    public static String unpack(long packedId) {
+        Entry entry = find(decoded, packedId);
+        if (entry != null) {
+            return entry.courseId;
+        }
+        if ((packedId & SYMBOL_FLAG) != 0) {
+            throw new IllegalArgumentException("Unknown course symbol: " + (packedId & ~SYMBOL_FLAG));
+        }
+        return decodeStandard(packedId);
+    }
+
+    /**
+     * True if the packed form encodes the ID itself. Other IDs are indices into
+     * this process's symbol table, so they must be stored by their text.
+     */
+    public static boolean isStandard(long packedId) {
+        return (packedId & SYMBOL_FLAG) == 0;
+    }
+
+    // Number of distinct IDs registered so far
+    public static synchronized int size() {
+        return decodedCount;
+    }
+
+    private static Entry find(Entry[] table, long packedId) {
+        int mask = table.length - 1;
+        for (int slot = slot(packedId, mask); ; slot = (slot + 1) & mask) {
+            Entry entry = table[slot];
+            if (entry == null || entry.packedId == packedId) {
+                return entry;
+            }
+        }
+    }
+
+    private static synchronized void register(long packedId, String courseId) {
+        Entry[] table = decoded;
+        if (find(table, packedId) != null) {
+            return;
+        }
+        if ((decodedCount + 1) * 2 > table.length) {
+            Entry[] grown = new Entry[table.length * 2];
+            for (Entry entry : table) {
+                if (entry != null) {
+                    insert(grown, entry);
+                }
+            }
+            table = grown;
+        }
+        // Entries are immutable, so a reader racing this store sees either null or the whole entry
+        insert(table, new Entry(packedId, courseId));
+        decodedCount++;
+        decoded = table;
+    }
+
+    private static void insert(Entry[] table, Entry entry) {
+        int mask = table.length - 1;
+        int slot = slot(entry.packedId, mask);
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+    }
+
+    private static int slot(long packedId, int mask) {
+        long mixed = packedId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & mask;
+    }
+
+    private static long packStandard(String courseId) {
+        int space = courseId.indexOf(' ');
+        int letters = space;
+        int digits = courseId.length() - space - 1;
+        if (letters < 1 || letters > MAX_LETTERS || digits < 1 || digits > MAX_DIGITS) {
+            return -1;
+        }
+        long department = 0;
+        for (int i = 0; i < letters; i++) {
+            char c = courseId.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            department = (department << LETTER_BITS) | (c - 'A' + 1);
+        }
+        int number = 0;
+        for (int i = space + 1; i < courseId.length(); i++) {
+            char c = courseId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return (department << (NUMBER_BITS + DIGIT_COUNT_BITS)) | ((long) digits << NUMBER_BITS) | number;
+    }
+
+    private static String decodeStandard(long packedId) {
+        int number = (int) (packedId & ((1 << NUMBER_BITS) - 1));
+        int digits = (int) ((packedId >>> NUMBER_BITS) & ((1 << DIGIT_COUNT_BITS) - 1));
+        long department = packedId >>> (NUMBER_BITS + DIGIT_COUNT_BITS);
+
+        StringBuilder letters = new StringBuilder(MAX_LETTERS);
+        while (department != 0) {
+            letters.append((char) ('A' + (department & ((1 << LETTER_BITS) - 1)) - 1));
+            department >>>= LETTER_BITS;
+        }
+        letters.reverse().append(' ');
+        String numberText = Integer.toString(number);
+        for (int i = numberText.length(); i < digits; i++) {
+            letters.append('0');
+        }
+        return letters.append(numberText).toString();
+    }
+
+    private static final class Entry {
+        final long packedId;
+        final String courseId;
+
+        Entry(long packedId, String courseId) {
+            this.packedId = packedId;
+            this.courseId = courseId;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared interning table for course names. The same course is scraped once
+ * per major that lists it, so without interning each copy keeps its own name
+ * string.
+ *
+ * Entries are never removed, so the table holds every distinct name seen since
+ * startup. That is bounded by the catalog (a few thousand courses), since only
+ * scraped course names are interned and request input never is.
+ */
+public final class NameTable {
+    private static final Map<String, String> names = new ConcurrentHashMap<>();
+
+    private NameTable() {
+    }
+
+    // Returns the shared instance equal to the given name
+    public static String intern(String name) {
+        String existing = names.putIfAbsent(name, name);
+        return existing == null ? name : existing;
+    }
+
+    public static int size() {
+        return names.size();
+    }
+}
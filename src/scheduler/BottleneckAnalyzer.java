@@ -0,0 +1,406 @@
+package scheduler;
+
+import model.Course;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ranks the courses that gate the most downstream work, per major and across
+ * majors, so department staff can decide which sections to expand.
+ *
+ * For every course it reports the number of courses that transitively depend
+ * on it, whether it lies on a longest prerequisite chain, its betweenness
+ * centrality (Brandes) in the prerequisite graph, and how many semesters the
+ * plan would save if the course's own prerequisites were dropped. The
+ * Writing Seminar and Senior Project nodes are left out, since every course
+ * links to the Senior Projects.
+ *
+ * Majors are analysed in parallel with fork/join, and inside each major every
+ * relaxation re-plan is its own subtask.
+ */
+public class BottleneckAnalyzer {
+    private static final String SENIOR_PROJECT_1 = "Senior Project I";
+    private static final String SENIOR_PROJECT_2 = "Senior Project II";
+    private static final String WRITING_SEMINAR = "Writing Seminar";
+
+    private final Map<String, PrereqGraph> graphsByMajor;
+    private final int maxCoursesPerSemester;
+    private final ForkJoinPool pool;
+
+    public BottleneckAnalyzer(Map<String, PrereqGraph> graphsByMajor, int maxCoursesPerSemester) {
+        this(graphsByMajor, maxCoursesPerSemester, ForkJoinPool.commonPool());
+    }
+
+    public BottleneckAnalyzer(Map<String, PrereqGraph> graphsByMajor, int maxCoursesPerSemester,
+            ForkJoinPool pool) {
+        if (maxCoursesPerSemester <= 0) {
+            throw new IllegalArgumentException("Max courses per semester must be positive.");
+        }
+        this.graphsByMajor = Collections.unmodifiableMap(new LinkedHashMap<>(graphsByMajor));
+        this.maxCoursesPerSemester = maxCoursesPerSemester;
+        this.pool = pool;
+    }
+
+    public Report analyze() {
+        return pool.invoke(new AllMajorsTask());
+    }
+
+    // Metrics of one course within one major
+    public static class CourseStats {
+        private final String courseId;
+        private final int descendants;
+        private final boolean critical;
+        private final double betweenness;
+        private final int semestersSaved;
+
+        CourseStats(String courseId, int descendants, boolean critical, double betweenness, int semestersSaved) {
+            this.courseId = courseId;
+            this.descendants = descendants;
+            this.critical = critical;
+            this.betweenness = betweenness;
+            this.semestersSaved = semestersSaved;
+        }
+
+        public String getCourseId() {
+            return courseId;
+        }
+
+        // Courses that transitively require this one
+        public int getDescendants() {
+            return descendants;
+        }
+
+        // True if the course lies on a longest prerequisite chain
+        public boolean isCritical() {
+            return critical;
+        }
+
+        public double getBetweenness() {
+            return betweenness;
+        }
+
+        // Semesters saved if this course's prerequisites were relaxed (0 if it has none)
+        public int getSemestersSaved() {
+            return semestersSaved;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s saves %d, %3d downstream, betweenness %6.1f%s", courseId, semestersSaved,
+                    descendants, betweenness, critical ? ", critical path" : "");
+        }
+    }
+
+    // Most important first: semesters saved, then downstream courses, then betweenness
+    private static final Comparator<CourseStats> RANKING = Comparator
+            .comparingInt((CourseStats stats) -> stats.semestersSaved).reversed()
+            .thenComparing(Comparator.comparingInt((CourseStats stats) -> stats.descendants).reversed())
+            .thenComparing(Comparator.comparingDouble((CourseStats stats) -> stats.betweenness).reversed())
+            .thenComparing(stats -> stats.courseId);
+
+    public static class Report {
+        private final Map<String, List<CourseStats>> rankedByMajor;
+        private final List<CourseStats> rankedAcrossMajors;
+        private final Map<String, Integer> criticalMajorCounts;
+
+        Report(Map<String, List<CourseStats>> rankedByMajor) {
+            this.rankedByMajor = Collections.unmodifiableMap(rankedByMajor);
+
+            // Across majors: sum downstream work and betweenness, keep the largest saving
+            Map<String, int[]> totals = new TreeMap<>(); // descendants, max saved, critical count
+            Map<String, Double> betweenness = new HashMap<>();
+            for (List<CourseStats> stats : rankedByMajor.values()) {
+                for (CourseStats course : stats) {
+                    int[] total = totals.computeIfAbsent(course.courseId, id -> new int[3]);
+                    total[0] += course.descendants;
+                    total[1] = Math.max(total[1], course.semestersSaved);
+                    total[2] += course.critical ? 1 : 0;
+                    betweenness.merge(course.courseId, course.betweenness, Double::sum);
+                }
+            }
+            List<CourseStats> across = new ArrayList<>();
+            Map<String, Integer> critical = new HashMap<>();
+            for (Map.Entry<String, int[]> entry : totals.entrySet()) {
+                int[] total = entry.getValue();
+                across.add(new CourseStats(entry.getKey(), total[0], total[2] > 0, betweenness.get(entry.getKey()),
+                        total[1]));
+                critical.put(entry.getKey(), total[2]);
+            }
+            across.sort(RANKING);
+            this.rankedAcrossMajors = Collections.unmodifiableList(across);
+            this.criticalMajorCounts = Collections.unmodifiableMap(critical);
+        }
+
+        public List<CourseStats> getRanked(String major) {
+            return rankedByMajor.getOrDefault(major, Collections.emptyList());
+        }
+
+        public List<CourseStats> getRankedAcrossMajors() {
+            return rankedAcrossMajors;
+        }
+
+        // Number of majors in which the course is on a longest prerequisite chain
+        public int getCriticalMajorCount(String courseId) {
+            return criticalMajorCounts.getOrDefault(courseId, 0);
+        }
+
+        public void printReport(int topPerMajor) {
+            for (Map.Entry<String, List<CourseStats>> entry : rankedByMajor.entrySet()) {
+                System.out.println(entry.getKey() + ":");
+                List<CourseStats> ranked = entry.getValue();
+                for (int i = 0; i < topPerMajor && i < ranked.size(); i++) {
+                    System.out.println("  " + (i + 1) + ". " + ranked.get(i));
+                }
+            }
+            System.out.println("Across all majors:");
+            for (int i = 0; i < topPerMajor && i < rankedAcrossMajors.size(); i++) {
+                CourseStats stats = rankedAcrossMajors.get(i);
+                System.out.println("  " + (i + 1) + ". " + stats + " (critical in "
+                        + getCriticalMajorCount(stats.courseId) + " majors)");
+            }
+        }
+    }
+
+    private class AllMajorsTask extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected Report compute() {
+            List<MajorTask> tasks = new ArrayList<>();
+            for (Map.Entry<String, PrereqGraph> entry : graphsByMajor.entrySet()) {
+                tasks.add(new MajorTask(entry.getValue()));
+            }
+            invokeAll(tasks);
+            Map<String, List<CourseStats>> ranked = new LinkedHashMap<>();
+            int i = 0;
+            for (String major : graphsByMajor.keySet()) {
+                ranked.put(major, tasks.get(i++).join());
+            }
+            return new Report(ranked);
+        }
+    }
+
+    private class MajorTask extends RecursiveTask<List<CourseStats>> {
+        private static final long serialVersionUID = 1L;
+
+        private final PrereqGraph graph;
+
+        MajorTask(PrereqGraph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        protected List<CourseStats> compute() {
+            List<String> ids = new ArrayList<>();
+            for (String courseId : graph.condensationOrder()) {
+                if (!isHub(courseId)) {
+                    ids.add(courseId);
+                }
+            }
+            int n = ids.size();
+            Map<String, Integer> indexOf = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                indexOf.put(ids.get(i), i);
+            }
+            int[][] successors = new int[n][];
+            for (int i = 0; i < n; i++) {
+                successors[i] = graph.getAdjList().getOrDefault(ids.get(i), Collections.emptyList()).stream()
+                        .map(indexOf::get).filter(Objects::nonNull).mapToInt(Integer::intValue).distinct()
+                        .toArray();
+            }
+
+            // Relaxation re-plans are the expensive part, fork them while the graph metrics run here
+            int baseline = new Scheduler(graph).generateDegreePlan(maxCoursesPerSemester).getSemesters().size();
+            List<RelaxationTask> relaxations = new ArrayList<>();
+            for (String courseId : ids) {
+                if (!graph.getCoursesMap().get(courseId).getPrerequisites().isEmpty()) {
+                    RelaxationTask task = new RelaxationTask(graph, courseId, baseline);
+                    task.fork();
+                    relaxations.add(task);
+                }
+            }
+
+            int[] descendants = countDescendants(ids, successors);
+            boolean[] critical = criticalPath(ids, successors);
+            double[] betweenness = betweenness(successors);
+
+            Map<String, Integer> saved = new HashMap<>();
+            for (RelaxationTask task : relaxations) {
+                saved.put(task.courseId, task.join());
+            }
+
+            List<CourseStats> stats = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                stats.add(new CourseStats(ids.get(i), descendants[i], critical[i], betweenness[i],
+                        saved.getOrDefault(ids.get(i), 0)));
+            }
+            stats.sort(RANKING);
+            return stats;
+        }
+
+        // ids are in condensation order, so walking backwards sees every successor component first
+        private int[] countDescendants(List<String> ids, int[][] successors) {
+            int n = ids.size();
+            BitSet[] reach = new BitSet[n];
+            int[] counts = new int[n];
+            for (int i = n - 1; i >= 0; i--) {
+                int component = graph.getComponentIndex(ids.get(i));
+                if (reach[i] == null) {
+                    // Members of a cycle share one reachability set
+                    BitSet shared = new BitSet(n);
+                    List<Integer> members = new ArrayList<>();
+                    for (int j = i; j >= 0 && graph.getComponentIndex(ids.get(j)) == component; j--) {
+                        members.add(j);
+                        reach[j] = shared;
+                    }
+                    for (int member : members) {
+                        for (int successor : successors[member]) {
+                            shared.set(successor);
+                            if (reach[successor] != shared) {
+                                shared.or(reach[successor]);
+                            }
+                        }
+                    }
+                }
+                BitSet own = (BitSet) reach[i].clone();
+                own.clear(i);
+                counts[i] = own.cardinality();
+            }
+            return counts;
+        }
+
+        // A course is critical when the longest chain through it equals the longest chain overall.
+        // Chains are measured on the condensation DAG, so every course of a cycle gets the cycle's lengths
+        private boolean[] criticalPath(List<String> ids, int[][] successors) {
+            int n = ids.size();
+            int components = graph.getComponents().size();
+            int[] fromStart = new int[components];
+            int[] toEnd = new int[components];
+            // Components are in topological order, so each one is final before its successors read it
+            for (int i = 0; i < n; i++) {
+                int component = graph.getComponentIndex(ids.get(i));
+                for (int successor : successors[i]) {
+                    int next = graph.getComponentIndex(ids.get(successor));
+                    if (next != component) {
+                        fromStart[next] = Math.max(fromStart[next], fromStart[component] + 1);
+                    }
+                }
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                int component = graph.getComponentIndex(ids.get(i));
+                for (int successor : successors[i]) {
+                    int next = graph.getComponentIndex(ids.get(successor));
+                    if (next != component) {
+                        toEnd[component] = Math.max(toEnd[component], toEnd[next] + 1);
+                    }
+                }
+            }
+            int longest = 0;
+            for (int component = 0; component < components; component++) {
+                longest = Math.max(longest, fromStart[component] + toEnd[component]);
+            }
+            boolean[] critical = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                int component = graph.getComponentIndex(ids.get(i));
+                critical[i] = longest > 0 && fromStart[component] + toEnd[component] == longest;
+            }
+            return critical;
+        }
+
+        // Brandes' algorithm for unweighted directed graphs
+        private double[] betweenness(int[][] successors) {
+            int n = successors.length;
+            double[] centrality = new double[n];
+            int[] distance = new int[n];
+            long[] paths = new long[n];
+            double[] dependency = new double[n];
+            int[] queue = new int[n];
+            int[] visitOrder = new int[n];
+            List<List<Integer>> predecessors = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                predecessors.add(new ArrayList<>());
+            }
+
+            for (int source = 0; source < n; source++) {
+                Arrays.fill(distance, -1);
+                Arrays.fill(paths, 0);
+                Arrays.fill(dependency, 0);
+                for (List<Integer> list : predecessors) {
+                    list.clear();
+                }
+                distance[source] = 0;
+                paths[source] = 1;
+                int head = 0;
+                int tail = 0;
+                int visited = 0;
+                queue[tail++] = source;
+                while (head < tail) {
+                    int v = queue[head++];
+                    visitOrder[visited++] = v;
+                    for (int w : successors[v]) {
+                        if (distance[w] < 0) {
+                            distance[w] = distance[v] + 1;
+                            queue[tail++] = w;
+                        }
+                        if (distance[w] == distance[v] + 1) {
+                            paths[w] += paths[v];
+                            predecessors.get(w).add(v);
+                        }
+                    }
+                }
+                for (int k = visited - 1; k >= 0; k--) {
+                    int w = visitOrder[k];
+                    for (int v : predecessors.get(w)) {
+                        dependency[v] += (double) paths[v] / paths[w] * (1 + dependency[w]);
+                    }
+                    if (w != source) {
+                        centrality[w] += dependency[w];
+                    }
+                }
+            }
+            return centrality;
+        }
+    }
+
+    // Re-plans a major with one course's prerequisites dropped
+    private class RelaxationTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final PrereqGraph graph;
+        private final String courseId;
+        private final int baseline;
+
+        RelaxationTask(PrereqGraph graph, String courseId, int baseline) {
+            this.graph = graph;
+            this.courseId = courseId;
+            this.baseline = baseline;
+        }
+
+        @Override
+        protected Integer compute() {
+            List<Course> relaxed = new ArrayList<>();
+            for (Course course : graph.getCoursesMap().values()) {
+                if (course.getCourseId().equals(courseId)) {
+                    relaxed.add(new Course(course.getCourseId(), course.getName(), Collections.emptyList(),
+                            course.getUnits()));
+                } else {
+                    relaxed.add(course);
+                }
+            }
+            return Math.max(0, baseline - semestersNeeded(relaxed));
+        }
+    }
+
+    private int semestersNeeded(List<Course> courses) {
+        PrereqGraph relaxedGraph = new PrereqGraph(courses);
+        // Its cycles are a subset of the major's, which were already reported when the baseline was planned
+        relaxedGraph.markCyclesReported();
+        return new Scheduler(relaxedGraph).generateDegreePlan(maxCoursesPerSemester).getSemesters().size();
+    }
+
+    private static boolean isHub(String courseId) {
+        return courseId.equals(SENIOR_PROJECT_1) || courseId.equals(SENIOR_PROJECT_2)
+                || courseId.equals(WRITING_SEMINAR);
+    }
+}
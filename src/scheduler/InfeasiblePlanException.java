@@ -0,0 +1,25 @@
+package scheduler;
+
+import model.DegreePlan;
+
+/**
+ * Thrown when the scheduler finishes a plan that breaks one of the request's
+ * constraints, eg it runs past the semester deadline or a pinned course could
+ * not be placed in its semester. The closest plan found is kept for callers
+ * that want to show it anyway.
+ */
+public class InfeasiblePlanException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient DegreePlan plan;
+
+    public InfeasiblePlanException(String message, DegreePlan plan) {
+        super(message);
+        this.plan = plan;
+    }
+
+    // The plan that missed the constraints
+    public DegreePlan getPlan() {
+        return plan;
+    }
+}
@@ -0,0 +1,167 @@
+package scheduler;
+
+import model.Course;
+import model.DegreePlan;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plans dual majors (or a major plus a minor) as one combined schedule.
+ *
+ * The course lists of the selected programs are merged into a single
+ * deduplicated {@link PrereqGraph}, so a course required by several programs
+ * (eg CIS 1200 for CSCI and NETS) is scheduled once, and the graph's single
+ * Writing Seminar and Senior Project pair is shared by the whole plan. Each
+ * course remembers which programs require it.
+ *
+ * Course objects are canonicalised across programs. Each program's graph is
+ * built once and combined with {@link PrereqGraph#merge}, so CSCI+NETS and
+ * CSCI+MATH share the CSCI graph, and every merged graph is cached by its set
+ * of programs so repeated plans for the same combination reuse one graph.
+ */
+public class MultiMajorPlanner {
+    private final Map<String, List<Course>> coursesByProgram; // Program code to its course list
+    private final Map<String, Course> canonicalCourses = new HashMap<>(); // One Course per ID
+    private final Map<String, PrereqGraph> programGraphs = new ConcurrentHashMap<>();
+    private final Map<Set<String>, MergedProgram> mergedCache = new ConcurrentHashMap<>();
+
+    /**
+     * @param coursesByProgram Course lists keyed by program code (eg CSCI, NETS).
+     *                         A minor can be passed as just another program.
+     * @throws IllegalArgumentException if two program codes differ only in case.
+     */
+    public MultiMajorPlanner(Map<String, List<Course>> coursesByProgram) {
+        for (List<Course> courses : coursesByProgram.values()) {
+            for (Course course : courses) {
+                canonicalCourses.merge(course.getCourseId(), course, MultiMajorPlanner::richer);
+            }
+        }
+        Map<String, List<Course>> programs = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Course>> entry : coursesByProgram.entrySet()) {
+            List<Course> canonical = new ArrayList<>();
+            for (Course course : entry.getValue()) {
+                canonical.add(canonicalCourses.get(course.getCourseId()));
+            }
+            String code = entry.getKey().trim().toUpperCase();
+            if (programs.put(code, Collections.unmodifiableList(canonical)) != null) {
+                throw new IllegalArgumentException("Program " + entry.getKey() + " is given more than once.");
+            }
+        }
+        this.coursesByProgram = Collections.unmodifiableMap(programs);
+    }
+
+    // When two programs scrape the same course keep the copy with more prerequisite information
+    private static Course richer(Course existing, Course candidate) {
+        return candidate.getPrerequisites().size() > existing.getPrerequisites().size() ? candidate : existing;
+    }
+
+    public Set<String> getPrograms() {
+        return coursesByProgram.keySet();
+    }
+
+    /**
+     * Returns the merged graph and ownership tags for a set of programs,
+     * building it on first use.
+     *
+     * @throws IllegalArgumentException if a program was not supplied to this planner.
+     */
+    public MergedProgram merge(Collection<String> programs) {
+        if (programs.isEmpty()) {
+            throw new IllegalArgumentException("At least one program is required.");
+        }
+        Set<String> key = new TreeSet<>();
+        for (String program : programs) {
+            String code = program.trim().toUpperCase();
+            if (!coursesByProgram.containsKey(code)) {
+                throw new IllegalArgumentException("Unknown program: " + program);
+            }
+            key.add(code);
+        }
+        return mergedCache.computeIfAbsent(Collections.unmodifiableSet(key), this::buildMergedProgram);
+    }
+
+    private MergedProgram buildMergedProgram(Set<String> programs) {
+        List<PrereqGraph> graphs = new ArrayList<>();
+        Map<String, Set<String>> owners = new HashMap<>();
+        for (String program : programs) {
+            graphs.add(programGraphs.computeIfAbsent(program, code -> new PrereqGraph(coursesByProgram.get(code))));
+            for (Course course : coursesByProgram.get(program)) {
+                owners.computeIfAbsent(course.getCourseId(), id -> new TreeSet<>()).add(program);
+            }
+        }
+        return new MergedProgram(programs, PrereqGraph.merge(graphs), owners);
+    }
+
+    // Generates one combined plan for the given programs under a single per-semester cap
+    public DegreePlan generateDegreePlan(Collection<String> programs, int maxCoursesPerSemester,
+            Set<String> alreadyCompleted) {
+        return new Scheduler(merge(programs).getGraph()).generateDegreePlan(maxCoursesPerSemester, alreadyCompleted);
+    }
+
+    public DegreePlan generateDegreePlan(Collection<String> programs, int maxCoursesPerSemester) {
+        return generateDegreePlan(programs, maxCoursesPerSemester, Collections.emptySet());
+    }
+
+    /**
+     * A merged set of programs: the combined prerequisite graph plus which
+     * programs require each course. Immutable and shared across callers.
+     */
+    public static class MergedProgram {
+        private final Set<String> programs;
+        private final PrereqGraph graph;
+        private final Map<String, Set<String>> owners; // Course ID to the programs that list it
+
+        MergedProgram(Set<String> programs, PrereqGraph graph, Map<String, Set<String>> owners) {
+            this.programs = programs;
+            this.graph = graph;
+            Map<String, Set<String>> frozen = new HashMap<>();
+            for (Map.Entry<String, Set<String>> entry : owners.entrySet()) {
+                frozen.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+            }
+            this.owners = Collections.unmodifiableMap(frozen);
+        }
+
+        public Set<String> getPrograms() {
+            return programs;
+        }
+
+        public PrereqGraph getGraph() {
+            return graph;
+        }
+
+        /**
+         * Returns the programs that list a course as a requirement. Auto-added
+         * prerequisites and the shared Writing Seminar and Senior Project nodes
+         * belong to no single program and return an empty set.
+         */
+        public Set<String> getOwners(String courseId) {
+            return owners.getOrDefault(courseId, Collections.emptySet());
+        }
+
+        // Courses required by more than one of the merged programs
+        public List<String> getSharedCourses() {
+            List<String> shared = new ArrayList<>();
+            for (Map.Entry<String, Set<String>> entry : owners.entrySet()) {
+                if (entry.getValue().size() > 1) {
+                    shared.add(entry.getKey());
+                }
+            }
+            Collections.sort(shared);
+            return shared;
+        }
+
+        // Prints a plan of this combination with the programs that require each course
+        public void printPlan(DegreePlan plan) {
+            List<List<String>> semesters = plan.getSemesters();
+            for (int i = 0; i < semesters.size(); i++) {
+                List<String> labelled = new ArrayList<>();
+                for (String courseId : semesters.get(i)) {
+                    Set<String> courseOwners = getOwners(courseId);
+                    labelled.add(courseOwners.isEmpty() ? courseId
+                            : courseId + " (" + String.join(", ", courseOwners) + ")");
+                }
+                System.out.println("Semester " + (i + 1) + ": " + labelled);
+            }
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package scheduler;
+
+import model.Course;
+import model.DegreePlan;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily enumerates distinct valid plans, cheapest first, so advisors can
+ * compare several good schedules instead of the single greedy one.
+ *
+ * Plans are ranked by semesterWeight per semester plus imbalanceWeight times
+ * the squared number of free slots in each semester of regular courses. The
+ * search is best-first over partial schedules with an admissible bound (the
+ * longest remaining prerequisite chain and the remaining course count), so
+ * plans come out of the stream in non-decreasing cost order and taking the top
+ * 10 only expands the states those 10 need. Partial schedules are linked to
+ * their parent, so alternatives share their common prefix instead of copying
+ * it.
+ *
+ * Dominated choices are never expanded: a semester that leaves out an eligible
+ * course while it still has room is skipped, as is any semester that misses a
+ * course whose {@link SemesterWindows} latest start is that semester.
+ * Interchangeable courses (no prerequisites and nothing depending on them)
+ * only fill leftover room in a fixed order, so plans that merely swap two such
+ * courses are not enumerated as alternatives. Writing
+ * Seminar goes in the first semester and the Senior Projects are placed after
+ * the search the same way the {@link Scheduler} places them.
+ *
+ * Only the first maxBranching candidate semesters (most urgent courses first)
+ * are expanded after each partial schedule, 16 by default. The order holds
+ * among the plans that survive that cut, but a cheaper plan that needs a
+ * pruned semester is never produced, so the stream is not an exact k-best
+ * list. Pass a larger maxBranching to widen the search at the cost of more
+ * states.
+ */
+public class PlanEnumerator {
+    private static final String SENIOR_PROJECT_1 = "Senior Project I";
+    private static final String SENIOR_PROJECT_2 = "Senior Project II";
+    private static final String WRITING_SEMINAR = "Writing Seminar";
+
+    public static final double DEFAULT_SEMESTER_WEIGHT = 100.0;
+    public static final double DEFAULT_IMBALANCE_WEIGHT = 1.0;
+    public static final int DEFAULT_MAX_BRANCHING = 16;
+
+    private final int maxCoursesPerSemester;
+    private final int maxSemesters; // 0 for no deadline
+    private final double semesterWeight;
+    private final double imbalanceWeight;
+    private final int maxBranching;
+    private final boolean placeSeniorProject1;
+    private final boolean placeSeniorProject2;
+
+    // Integer encoding of the regular courses that still have to be scheduled
+    private final List<String> courseIds = new ArrayList<>();
+    private final int[][][] prereqGroups; // Per course, AND of OR groups of course indices
+    private final List<int[]> units = new ArrayList<>(); // Courses that must share a semester (cycles)
+    private final int[] unitOf;
+    private final int[] remainingChain; // Semesters needed from this course to the end, inclusive
+    private final int[] latest; // Latest semester under the deadline, or MAX_VALUE
+    private final int writingSeminar; // Index of Writing Seminar, or -1
+    private final int[] priorityOrder; // Units in the order subsets are built (least slack first)
+    private final boolean[] interchangeable; // Per unit, courses that only ever fill leftover room
+
+    public PlanEnumerator(PrereqGraph graph, int maxCoursesPerSemester, int maxSemesters,
+            Set<String> alreadyCompleted) {
+        this(graph, maxCoursesPerSemester, maxSemesters, alreadyCompleted, DEFAULT_SEMESTER_WEIGHT,
+                DEFAULT_IMBALANCE_WEIGHT, DEFAULT_MAX_BRANCHING);
+    }
+
+    /**
+     * @param maxSemesters    Deadline used to prune, or 0 for none.
+     * @param semesterWeight  Cost of each semester in the plan.
+     * @param imbalanceWeight Cost of each squared free slot in a semester.
+     * @param maxBranching    Most alternative semesters tried after any partial schedule.
+     */
+    public PlanEnumerator(PrereqGraph graph, int maxCoursesPerSemester, int maxSemesters,
+            Set<String> alreadyCompleted, double semesterWeight, double imbalanceWeight, int maxBranching) {
+        if (maxCoursesPerSemester <= 0) {
+            throw new IllegalArgumentException("Max courses per semester must be positive.");
+        }
+        if (maxSemesters < 0 || maxBranching <= 0) {
+            throw new IllegalArgumentException("Deadline cannot be negative and branching must be positive.");
+        }
+        this.maxCoursesPerSemester = maxCoursesPerSemester;
+        this.maxSemesters = maxSemesters;
+        this.semesterWeight = semesterWeight;
+        this.imbalanceWeight = imbalanceWeight;
+        this.maxBranching = maxBranching;
+        Map<String, Course> coursesMap = graph.getCoursesMap();
+        this.placeSeniorProject1 = coursesMap.containsKey(SENIOR_PROJECT_1)
+                && !alreadyCompleted.contains(SENIOR_PROJECT_1);
+        this.placeSeniorProject2 = coursesMap.containsKey(SENIOR_PROJECT_2)
+                && !alreadyCompleted.contains(SENIOR_PROJECT_2);
+
+        Map<String, Integer> indexOf = new HashMap<>();
+        for (String courseId : graph.condensationOrder()) {
+            if (!alreadyCompleted.contains(courseId) && !courseId.equals(SENIOR_PROJECT_1)
+                    && !courseId.equals(SENIOR_PROJECT_2)) {
+                indexOf.put(courseId, courseIds.size());
+                courseIds.add(courseId);
+            }
+        }
+        int n = courseIds.size();
+        writingSeminar = indexOf.getOrDefault(WRITING_SEMINAR, -1);
+
+        // Windows without a deadline give the remaining chain length, with one they give latest starts
+        Map<String, Integer> pins = writingSeminar == -1 ? Collections.emptyMap()
+                : Collections.singletonMap(WRITING_SEMINAR, 0);
+        int horizon = n + 2;
+        SemesterWindows chains = new SemesterWindows(graph, horizon, alreadyCompleted, Collections.emptyMap());
+        SemesterWindows deadline = maxSemesters > 0
+                ? new SemesterWindows(graph, maxSemesters, alreadyCompleted, pins)
+                : null;
+
+        Map<String, List<String>> graphPrereqs = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : graph.getAdjList().entrySet()) {
+            for (String successor : entry.getValue()) {
+                graphPrereqs.computeIfAbsent(successor, id -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        prereqGroups = new int[n][][];
+        remainingChain = new int[n];
+        latest = new int[n];
+        unitOf = new int[n];
+        Arrays.fill(unitOf, -1);
+        for (int i = 0; i < n; i++) {
+            String courseId = courseIds.get(i);
+            Course course = coursesMap.get(courseId);
+            List<int[]> groups = new ArrayList<>();
+            for (List<String> orGroup : course.getPrerequisites()) {
+                List<Integer> members = new ArrayList<>();
+                boolean satisfied = false;
+                for (String prereq : orGroup) {
+                    if (alreadyCompleted.contains(prereq)) {
+                        satisfied = true;
+                        break;
+                    }
+                    Integer member = indexOf.get(prereq);
+                    if (member != null && !graph.areCorequisites(prereq, courseId)) {
+                        members.add(member);
+                    } else if (member != null) {
+                        satisfied = true; // Taken together with this course as part of its cycle
+                        break;
+                    }
+                }
+                if (!satisfied && !members.isEmpty()) {
+                    groups.add(members.stream().mapToInt(Integer::intValue).toArray());
+                }
+            }
+            // Graph-only rules, eg CIS 1100 before CIS 1200
+            for (String prereq : graphPrereqs.getOrDefault(courseId, Collections.emptyList())) {
+                Integer member = indexOf.get(prereq);
+                if (member != null && !graph.areCorequisites(prereq, courseId) && !mentions(course, prereq)) {
+                    groups.add(new int[] { member });
+                }
+            }
+            prereqGroups[i] = groups.toArray(new int[0][]);
+            remainingChain[i] = horizon - chains.getLatest(courseId);
+            latest[i] = deadline != null && deadline.contains(courseId) ? deadline.getLatest(courseId)
+                    : Integer.MAX_VALUE;
+
+            if (unitOf[i] == -1) {
+                List<Integer> members = new ArrayList<>();
+                for (String member : graph.isCyclic(courseId)
+                        ? graph.getComponents().get(graph.getComponentIndex(courseId))
+                        : Collections.singletonList(courseId)) {
+                    Integer memberIndex = indexOf.get(member);
+                    if (memberIndex != null) {
+                        members.add(memberIndex);
+                        unitOf[memberIndex] = units.size();
+                    }
+                }
+                units.add(members.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        Integer[] order = new Integer[units.size()];
+        for (int u = 0; u < order.length; u++) {
+            order[u] = u;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer u) -> unitLatest(u))
+                .thenComparingInt(u -> -unitChain(u))
+                .thenComparingInt(u -> u));
+        priorityOrder = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+
+        boolean[] hasDependents = new boolean[n];
+        for (int[][] groups : prereqGroups) {
+            for (int[] group : groups) {
+                for (int member : group) {
+                    hasDependents[member] = true;
+                }
+            }
+        }
+        interchangeable = new boolean[units.size()];
+        for (int u = 0; u < units.size(); u++) {
+            int[] members = units.get(u);
+            int course = members[0];
+            interchangeable[u] = members.length == 1 && course != writingSeminar && prereqGroups[course].length == 0
+                    && !hasDependents[course];
+        }
+    }
+
+    private static boolean mentions(Course course, String courseId) {
+        for (List<String> orGroup : course.getPrerequisites()) {
+            if (orGroup.contains(courseId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int unitLatest(int unit) {
+        int bound = Integer.MAX_VALUE;
+        for (int course : units.get(unit)) {
+            bound = Math.min(bound, latest[course]);
+        }
+        return bound;
+    }
+
+    private int unitChain(int unit) {
+        int chain = 0;
+        for (int course : units.get(unit)) {
+            chain = Math.max(chain, remainingChain[course]);
+        }
+        return chain;
+    }
+
+    /**
+     * Returns the plans in non-decreasing cost order. The stream is lazy and
+     * may be long, so callers should limit it, eg stream().limit(10).
+     */
+    public Stream<DegreePlan> stream() {
+        return StreamSupport.stream(new PlanSpliterator(), false);
+    }
+
+    // Returns the cost this enumerator assigns to a plan it produced
+    public double costOf(DegreePlan plan) {
+        int regularSemesters = 0;
+        double imbalance = 0;
+        for (List<String> semester : plan.getSemesters()) {
+            int regular = 0;
+            for (String courseId : semester) {
+                if (!courseId.equals(SENIOR_PROJECT_1) && !courseId.equals(SENIOR_PROJECT_2)) {
+                    regular++;
+                }
+            }
+            if (regular > 0) {
+                regularSemesters++;
+                int free = Math.max(0, maxCoursesPerSemester - regular);
+                imbalance += free * free;
+            }
+        }
+        return semesterWeight * Math.max(regularSemesters, plan.getSemesters().size())
+                + imbalanceWeight * imbalance;
+    }
+
+    // A partial schedule. Only the newest semester is stored, earlier ones are reached through parent
+    private static final class Node {
+        private final Node parent;
+        private final int[] semester;
+        private final BitSet scheduled;
+        private final int depth;
+        private final double costSoFar; // Semesters and imbalance of the semesters so far
+        private final double priority; // costSoFar plus the bound, or the final cost once complete
+        private final DegreePlan complete; // Set once the Senior Projects are placed
+
+        Node(Node parent, int[] semester, BitSet scheduled, int depth, double costSoFar, double priority,
+                DegreePlan complete) {
+            this.parent = parent;
+            this.semester = semester;
+            this.scheduled = scheduled;
+            this.depth = depth;
+            this.costSoFar = costSoFar;
+            this.priority = priority;
+            this.complete = complete;
+        }
+    }
+
+    private class PlanSpliterator extends Spliterators.AbstractSpliterator<DegreePlan> {
+        // Cheapest first, deeper partial schedules first on ties so the search dives instead of widening
+        private final PriorityQueue<Node> frontier = new PriorityQueue<>(
+                Comparator.comparingDouble((Node node) -> node.priority)
+                        .thenComparing(node -> node.complete == null)
+                        .thenComparingInt(node -> -node.depth));
+
+        PlanSpliterator() {
+            super(Long.MAX_VALUE, ORDERED | DISTINCT | NONNULL);
+            Node root = withBound(new Node(null, new int[0], new BitSet(courseIds.size()), 0, 0, 0, null));
+            if (root != null) {
+                frontier.add(root); // Otherwise the deadline is already out of reach
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super DegreePlan> action) {
+            Node node;
+            while ((node = frontier.poll()) != null) {
+                if (node.complete != null) {
+                    action.accept(node.complete);
+                    return true;
+                }
+                if (node.scheduled.cardinality() == courseIds.size()) {
+                    DegreePlan plan = finish(node);
+                    frontier.add(new Node(node.parent, node.semester, node.scheduled, node.depth,
+                            node.costSoFar, costOf(plan), plan));
+                    continue;
+                }
+                expand(node);
+            }
+            return false;
+        }
+
+        private void expand(Node node) {
+            List<Integer> eligible = new ArrayList<>();
+            List<Integer> fillers = new ArrayList<>(); // Eligible interchangeable units, in index order
+            for (int unit : priorityOrder) {
+                if (isEligible(unit, node.scheduled)) {
+                    if (interchangeable[unit] && unitLatest(unit) > node.depth) {
+                        fillers.add(unit);
+                    } else {
+                        eligible.add(unit);
+                    }
+                }
+            }
+            Collections.sort(fillers);
+            // A course past its latest start can never be placed, nothing below this node is valid
+            for (int unit = 0; unit < units.size(); unit++) {
+                if (!node.scheduled.get(units.get(unit)[0]) && unitLatest(unit) < node.depth) {
+                    return;
+                }
+            }
+
+            List<int[]> choices = new ArrayList<>();
+            chooseSemesters(node, eligible, fillers, 0, new ArrayList<>(), 0, choices);
+            for (int[] semester : choices) {
+                BitSet scheduled = (BitSet) node.scheduled.clone();
+                for (int course : semester) {
+                    scheduled.set(course);
+                }
+                int free = Math.max(0, maxCoursesPerSemester - semester.length);
+                double costSoFar = node.costSoFar + semesterWeight + imbalanceWeight * free * free;
+                Node child = withBound(new Node(node, semester, scheduled, node.depth + 1, costSoFar, 0, null));
+                if (child != null) {
+                    frontier.add(child);
+                }
+            }
+        }
+
+        // Builds up to maxBranching maximal semesters from the eligible units, most urgent units first
+        private void chooseSemesters(Node node, List<Integer> eligible, List<Integer> fillers, int position,
+                List<Integer> chosen, int used, List<int[]> choices) {
+            if (choices.size() >= maxBranching) {
+                return;
+            }
+            if (position == eligible.size()) {
+                int filled = Math.min(fillers.size(), Math.max(0, maxCoursesPerSemester - used));
+                if (chosen.isEmpty() && filled == 0) {
+                    return;
+                }
+                for (int unit : eligible) {
+                    if (!chosen.contains(unit) && used + filled + units.get(unit).length <= maxCoursesPerSemester) {
+                        return; // Dominated: an eligible course was left out of a semester with room
+                    }
+                }
+                List<Integer> semester = new ArrayList<>(chosen);
+                semester.addAll(fillers.subList(0, filled));
+                choices.add(flatten(semester));
+                return;
+            }
+
+            int unit = eligible.get(position);
+            int size = units.get(unit).length;
+            boolean mandatory = unitLatest(unit) <= node.depth
+                    || (node.depth == 0 && writingSeminar != -1 && unitOf[writingSeminar] == unit);
+            if (used + size <= maxCoursesPerSemester || used == 0) {
+                chosen.add(unit);
+                chooseSemesters(node, eligible, fillers, position + 1, chosen, used + size, choices);
+                chosen.remove(chosen.size() - 1);
+            }
+            if (!mandatory) {
+                chooseSemesters(node, eligible, fillers, position + 1, chosen, used, choices);
+            }
+        }
+
+        private int[] flatten(List<Integer> chosen) {
+            List<Integer> courses = new ArrayList<>();
+            for (int unit : chosen) {
+                for (int course : units.get(unit)) {
+                    courses.add(course);
+                }
+            }
+            return courses.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private boolean isEligible(int unit, BitSet scheduled) {
+            for (int course : units.get(unit)) {
+                if (scheduled.get(course)) {
+                    return false;
+                }
+                for (int[] group : prereqGroups[course]) {
+                    boolean met = false;
+                    for (int member : group) {
+                        if (scheduled.get(member)) {
+                            met = true;
+                            break;
+                        }
+                    }
+                    if (!met) {
+                        return false;
+                    }
+                }
+            }
+            // Writing Seminar is only ever placed in the first semester
+            return writingSeminar == -1 || unitOf[writingSeminar] != unit || scheduled.isEmpty();
+        }
+
+        // Adds the admissible bound, or returns null if the deadline can no longer be met
+        private Node withBound(Node node) {
+            int remaining = courseIds.size() - node.scheduled.cardinality();
+            int chain = 0;
+            for (int i = node.scheduled.nextClearBit(0); i < courseIds.size(); i = node.scheduled.nextClearBit(i + 1)) {
+                chain = Math.max(chain, remainingChain[i]);
+            }
+            int moreSemesters = Math.max(chain, (remaining + maxCoursesPerSemester - 1) / maxCoursesPerSemester);
+            if (maxSemesters > 0 && node.depth + moreSemesters > maxSemesters) {
+                return null;
+            }
+            double bound = node.costSoFar + semesterWeight * moreSemesters;
+            return new Node(node.parent, node.semester, node.scheduled, node.depth, node.costSoFar, bound, null);
+        }
+
+        // Rebuilds the full plan from the shared prefix chain and places the Senior Projects
+        private DegreePlan finish(Node node) {
+            LinkedList<List<String>> semesters = new LinkedList<>();
+            for (Node current = node; current.parent != null; current = current.parent) {
+                List<String> semester = new ArrayList<>();
+                for (int course : current.semester) {
+                    semester.add(courseIds.get(course));
+                }
+                semesters.addFirst(semester);
+            }
+
+            // Same rule as the Scheduler: Senior Project I in the second to last semester if it has room,
+            // otherwise the last, otherwise a new one, and Senior Project II in the semester after it
+            int seniorProject1 = -1;
+            if (placeSeniorProject1) {
+                if (semesters.isEmpty()) {
+                    semesters.add(new ArrayList<>());
+                }
+                int size = semesters.size();
+                if (size >= 2 && semesters.get(size - 2).size() < maxCoursesPerSemester) {
+                    seniorProject1 = size - 2;
+                } else if (semesters.get(size - 1).size() < maxCoursesPerSemester) {
+                    seniorProject1 = size - 1;
+                } else {
+                    semesters.add(new ArrayList<>());
+                    seniorProject1 = size;
+                }
+                semesters.get(seniorProject1).add(SENIOR_PROJECT_1);
+            }
+            if (placeSeniorProject2) {
+                // Senior Project I completed before this plan: Senior Project II goes in the last semester
+                int target = placeSeniorProject1 ? seniorProject1 + 1 : semesters.size() - 1;
+                if (target >= 0 && target < semesters.size()
+                        && semesters.get(target).size() < maxCoursesPerSemester) {
+                    semesters.get(target).add(SENIOR_PROJECT_2);
+                } else {
+                    semesters.add(new ArrayList<>(List.of(SENIOR_PROJECT_2)));
+                }
+            }
+
+            DegreePlan plan = new DegreePlan();
+            for (List<String> semester : semesters) {
+                plan.addSemester(semester);
+            }
+            return plan;
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package scheduler;
+
+import model.Course;
+import model.DegreePlan;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Rebalances a valid {@link DegreePlan} by course units.
+ *
+ * The greedy {@link Scheduler} fills every semester up to its course count, so
+ * plans are front-loaded and end with light semesters. This optimizer keeps
+ * the number of semesters and moves or swaps courses between them to minimise
+ * the variance of semester loads. A semester over the credit cap costs far
+ * more than any imbalance. Every move keeps all prerequisites satisfied and
+ * stays inside the course's {@link SemesterWindows}. Writing Seminar and the
+ * Senior Projects keep the positions the Scheduler gave them.
+ *
+ * Independent restarts run as tasks on the common ForkJoinPool (or a given
+ * executor) until the time budget is spent, and the best plan found wins. The
+ * tasks keep their threads busy for the whole budget, so a server running many
+ * optimizations at once should pass its own executor.
+ */
+public class PlanOptimizer {
+    private static final String SENIOR_PROJECT_1 = "Senior Project I";
+    private static final String SENIOR_PROJECT_2 = "Senior Project II";
+    private static final String WRITING_SEMINAR = "Writing Seminar";
+
+    private static final double OVER_CAP_PENALTY = 1000.0;
+    private static final int PERTURBATION_MOVES = 20; // Random valid moves at the start of each restart
+    private static final int STALE_ITERATIONS = 2000; // Hill climbing stops after this many moves without gain
+
+    private final PrereqGraph graph;
+    private final double maxUnitsPerSemester;
+    private final Set<String> alreadyCompleted;
+    private final int threads;
+    private final Executor executor;
+
+    /**
+     * @param graph               The graph the plan was generated from.
+     * @param maxUnitsPerSemester Credit cap for a single semester.
+     * @param alreadyCompleted    Courses completed before the plan starts.
+     */
+    public PlanOptimizer(PrereqGraph graph, double maxUnitsPerSemester, Set<String> alreadyCompleted) {
+        this(graph, maxUnitsPerSemester, alreadyCompleted, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public PlanOptimizer(PrereqGraph graph, double maxUnitsPerSemester, Set<String> alreadyCompleted, int threads) {
+        this(graph, maxUnitsPerSemester, alreadyCompleted, threads, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param threads  Number of independent searches per call.
+     * @param executor Runs the searches. Not shut down by the optimizer.
+     */
+    public PlanOptimizer(PrereqGraph graph, double maxUnitsPerSemester, Set<String> alreadyCompleted, int threads,
+            Executor executor) {
+        if (maxUnitsPerSemester <= 0) {
+            throw new IllegalArgumentException("Max units per semester must be positive.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive.");
+        }
+        this.graph = graph;
+        this.maxUnitsPerSemester = maxUnitsPerSemester;
+        this.alreadyCompleted = Collections.unmodifiableSet(new HashSet<>(alreadyCompleted));
+        this.threads = threads;
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+    }
+
+    /**
+     * Returns a rebalanced copy of the plan, or an equivalent copy if nothing
+     * better was found within the time budget. Empty semesters left at the end
+     * are dropped.
+     */
+    public DegreePlan optimize(DegreePlan plan, long timeBudgetMillis) {
+        Problem problem = new Problem(plan);
+        if (problem.size() == 0 || problem.semesterCount < 2) {
+            return problem.toPlan(problem.initial);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        List<CompletableFuture<int[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(31L * t + plan.getSemesters().hashCode());
+            boolean startFromInput = t == 0; // One worker climbs straight from the input plan
+            results.add(CompletableFuture.supplyAsync(
+                    () -> problem.search(random, deadline, startFromInput), executor));
+        }
+
+        int[] best = problem.initial;
+        double bestCost = problem.cost(best);
+        try {
+            for (Future<int[]> result : results) {
+                int[] candidate = result.get();
+                double cost = problem.cost(candidate);
+                if (cost < bestCost) {
+                    best = candidate;
+                    bestCost = cost;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Plan optimization failed", e.getCause());
+        }
+        return problem.toPlan(best);
+    }
+
+    // Total units per semester of a plan, using Course.DEFAULT_UNITS for unknown courses
+    public double[] semesterUnits(DegreePlan plan) {
+        List<List<String>> semesters = plan.getSemesters();
+        double[] loads = new double[semesters.size()];
+        for (int s = 0; s < semesters.size(); s++) {
+            for (String courseId : semesters.get(s)) {
+                loads[s] += unitsOf(courseId);
+            }
+        }
+        return loads;
+    }
+
+    // Population variance of the semester loads
+    public double loadVariance(DegreePlan plan) {
+        double[] loads = semesterUnits(plan);
+        if (loads.length == 0) {
+            return 0;
+        }
+        double mean = 0;
+        for (double load : loads) {
+            mean += load;
+        }
+        mean /= loads.length;
+        double variance = 0;
+        for (double load : loads) {
+            variance += (load - mean) * (load - mean);
+        }
+        return variance / loads.length;
+    }
+
+    private double unitsOf(String courseId) {
+        Course course = graph.getCoursesMap().get(courseId);
+        return course == null ? Course.DEFAULT_UNITS : course.getUnits();
+    }
+
+    // Integer encoding of one plan, shared read-only by all search threads
+    private class Problem {
+        private final List<String> courseIds = new ArrayList<>(); // In original plan order
+        private final int semesterCount;
+        private final int[] initial; // Semester of each course in the input plan
+        private final double[] units;
+        private final boolean[] fixed;
+        private final int[][][] prereqGroups; // Per course, AND of OR groups of course indices
+        private final int[][] dependents; // Courses whose prerequisite groups mention this one
+        private final boolean[][] corequisite; // Only allocated for courses on a cycle
+        private final int[] earliest;
+        private final int[] latest;
+
+        Problem(DegreePlan plan) {
+            List<List<String>> semesters = plan.getSemesters();
+            semesterCount = semesters.size();
+            Map<String, Integer> indexOf = new HashMap<>();
+            List<Integer> semesterOf = new ArrayList<>();
+            for (int s = 0; s < semesterCount; s++) {
+                for (String courseId : semesters.get(s)) {
+                    if (indexOf.putIfAbsent(courseId, courseIds.size()) == null) {
+                        courseIds.add(courseId);
+                        semesterOf.add(s);
+                    }
+                }
+            }
+            int n = courseIds.size();
+            initial = new int[n];
+            units = new double[n];
+            fixed = new boolean[n];
+            prereqGroups = new int[n][][];
+            corequisite = new boolean[n][];
+            earliest = new int[n];
+            latest = new int[n];
+
+            // Windows for a plan of the same length prune moves that could never be valid
+            Map<String, Integer> pinnedInPlace = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                String courseId = courseIds.get(i);
+                initial[i] = semesterOf.get(i);
+                units[i] = unitsOf(courseId);
+                fixed[i] = courseId.equals(WRITING_SEMINAR) || courseId.equals(SENIOR_PROJECT_1)
+                        || courseId.equals(SENIOR_PROJECT_2);
+                if (fixed[i]) {
+                    pinnedInPlace.put(courseId, initial[i]);
+                }
+            }
+            SemesterWindows windows = new SemesterWindows(graph, semesterCount, alreadyCompleted, pinnedInPlace);
+
+            Map<String, List<String>> graphPrereqs = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry : graph.getAdjList().entrySet()) {
+                for (String successor : entry.getValue()) {
+                    graphPrereqs.computeIfAbsent(successor, id -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+
+            List<List<Integer>> dependentLists = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                dependentLists.add(new ArrayList<>());
+            }
+            for (int i = 0; i < n; i++) {
+                String courseId = courseIds.get(i);
+                boolean useWindow = windows.isFeasible() && windows.contains(courseId)
+                        && windows.allows(courseId, initial[i]);
+                earliest[i] = useWindow ? windows.getEarliest(courseId) : 0;
+                latest[i] = useWindow ? windows.getLatest(courseId) : semesterCount - 1;
+
+                List<int[]> groups = new ArrayList<>();
+                Course course = graph.getCoursesMap().get(courseId);
+                List<List<String>> logical = course == null ? Collections.emptyList() : course.getPrerequisites();
+                for (List<String> orGroup : logical) {
+                    int[] members = encodeGroup(orGroup, indexOf);
+                    if (members != null) {
+                        groups.add(members);
+                    }
+                }
+                // Graph-only rules, eg CIS 1100 before CIS 1200 (Senior Projects are fixed anyway)
+                for (String prereq : graphPrereqs.getOrDefault(courseId, Collections.emptyList())) {
+                    Integer prereqIndex = indexOf.get(prereq);
+                    if (prereqIndex != null && !courseId.equals(SENIOR_PROJECT_1) && !mentions(logical, prereq)) {
+                        groups.add(new int[] { prereqIndex });
+                    }
+                }
+                prereqGroups[i] = groups.toArray(new int[0][]);
+                for (int[] group : prereqGroups[i]) {
+                    for (int member : group) {
+                        dependentLists.get(member).add(i);
+                    }
+                }
+                if (graph.isCyclic(courseId)) {
+                    corequisite[i] = new boolean[n];
+                    for (int j = 0; j < n; j++) {
+                        corequisite[i][j] = graph.areCorequisites(courseId, courseIds.get(j));
+                    }
+                }
+            }
+            dependents = new int[n][];
+            for (int i = 0; i < n; i++) {
+                dependents[i] = dependentLists.get(i).stream().distinct().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        // Null when a completed course already satisfies the group or nothing in it is scheduled
+        private int[] encodeGroup(List<String> orGroup, Map<String, Integer> indexOf) {
+            List<Integer> members = new ArrayList<>();
+            for (String prereq : orGroup) {
+                if (alreadyCompleted.contains(prereq)) {
+                    return null;
+                }
+                Integer member = indexOf.get(prereq);
+                if (member != null) {
+                    members.add(member);
+                }
+            }
+            return members.isEmpty() ? null : members.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private boolean mentions(List<List<String>> groups, String courseId) {
+            for (List<String> orGroup : groups) {
+                if (orGroup.contains(courseId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int size() {
+            return courseIds.size();
+        }
+
+        // True if every prerequisite group of the course is satisfied by the assignment
+        boolean satisfied(int course, int[] semesterOf) {
+            int semester = semesterOf[course];
+            for (int[] group : prereqGroups[course]) {
+                boolean met = false;
+                for (int member : group) {
+                    if (semesterOf[member] < semester || (semesterOf[member] == semester
+                            && corequisite[course] != null && corequisite[course][member])) {
+                        met = true;
+                        break;
+                    }
+                }
+                if (!met) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Checks a course and everything that depends on it after the course was moved
+        boolean validAround(int course, int[] semesterOf) {
+            if (!satisfied(course, semesterOf)) {
+                return false;
+            }
+            for (int dependent : dependents[course]) {
+                if (!satisfied(dependent, semesterOf)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double cost(int[] semesterOf) {
+            double[] loads = new double[semesterCount];
+            for (int i = 0; i < semesterOf.length; i++) {
+                loads[semesterOf[i]] += units[i];
+            }
+            return cost(loads);
+        }
+
+        // Sum of squared loads: with a fixed total this orders plans exactly like their variance
+        double cost(double[] loads) {
+            double cost = 0;
+            for (double load : loads) {
+                cost += load * load;
+                if (load > maxUnitsPerSemester) {
+                    double over = load - maxUnitsPerSemester;
+                    cost += OVER_CAP_PENALTY * over * over;
+                }
+            }
+            return cost;
+        }
+
+        // One worker: perturb, hill climb with moves and swaps, repeat until the deadline
+        int[] search(SplittableRandom random, long deadline, boolean startFromInput) {
+            int n = size();
+            int[] best = initial.clone();
+            double bestCost = cost(best);
+            boolean firstRestart = true;
+
+            while (System.nanoTime() < deadline) {
+                int[] current = best.clone();
+                if (!(firstRestart && startFromInput)) {
+                    for (int k = 0; k < PERTURBATION_MOVES; k++) {
+                        tryMove(current, random.nextInt(n), random.nextInt(semesterCount));
+                    }
+                }
+                firstRestart = false;
+
+                double[] loads = new double[semesterCount];
+                for (int i = 0; i < n; i++) {
+                    loads[current[i]] += units[i];
+                }
+                double currentCost = cost(loads);
+                int stale = 0;
+                for (long iteration = 0; stale < STALE_ITERATIONS; iteration++) {
+                    if ((iteration & 255) == 0 && System.nanoTime() >= deadline) {
+                        break;
+                    }
+                    int a = random.nextInt(n);
+                    double gain;
+                    if (random.nextBoolean()) {
+                        gain = moveGain(current, loads, a, random.nextInt(semesterCount), currentCost);
+                    } else {
+                        gain = swapGain(current, loads, a, random.nextInt(n), currentCost);
+                    }
+                    if (gain > 1e-9) {
+                        currentCost -= gain;
+                        stale = 0;
+                    } else {
+                        stale++;
+                    }
+                }
+                if (currentCost < bestCost - 1e-9) {
+                    best = current.clone();
+                    bestCost = currentCost;
+                }
+            }
+            return best;
+        }
+
+        private boolean movable(int course, int target) {
+            return !fixed[course] && target >= earliest[course] && target <= latest[course];
+        }
+
+        // Applies a valid move regardless of cost, used for perturbation
+        private void tryMove(int[] semesterOf, int course, int target) {
+            int source = semesterOf[course];
+            if (source == target || !movable(course, target)) {
+                return;
+            }
+            semesterOf[course] = target;
+            if (!validAround(course, semesterOf)) {
+                semesterOf[course] = source;
+            }
+        }
+
+        // Applies the move if it is valid and lowers the cost, returning the improvement (0 if rejected)
+        private double moveGain(int[] semesterOf, double[] loads, int course, int target, double currentCost) {
+            int source = semesterOf[course];
+            if (source == target || !movable(course, target)) {
+                return 0;
+            }
+            loads[source] -= units[course];
+            loads[target] += units[course];
+            double gain = currentCost - cost(loads);
+            if (gain > 1e-9) {
+                semesterOf[course] = target;
+                if (validAround(course, semesterOf)) {
+                    return gain;
+                }
+                semesterOf[course] = source;
+            }
+            loads[source] += units[course];
+            loads[target] -= units[course];
+            return 0;
+        }
+
+        private double swapGain(int[] semesterOf, double[] loads, int a, int b, double currentCost) {
+            int semA = semesterOf[a];
+            int semB = semesterOf[b];
+            if (semA == semB || units[a] == units[b] || !movable(a, semB) || !movable(b, semA)) {
+                return 0; // Swapping equal units never changes the loads
+            }
+            loads[semA] += units[b] - units[a];
+            loads[semB] += units[a] - units[b];
+            double gain = currentCost - cost(loads);
+            if (gain > 1e-9) {
+                semesterOf[a] = semB;
+                semesterOf[b] = semA;
+                if (validAround(a, semesterOf) && validAround(b, semesterOf)) {
+                    return gain;
+                }
+                semesterOf[a] = semA;
+                semesterOf[b] = semB;
+            }
+            loads[semA] -= units[b] - units[a];
+            loads[semB] -= units[a] - units[b];
+            return 0;
+        }
+
+        // Rebuilds a plan keeping the original order of courses inside each semester
+        DegreePlan toPlan(int[] semesterOf) {
+            List<List<String>> semesters = new ArrayList<>();
+            for (int s = 0; s < semesterCount; s++) {
+                semesters.add(new ArrayList<>());
+            }
+            for (int i = 0; i < semesterOf.length; i++) {
+                semesters.get(semesterOf[i]).add(courseIds.get(i));
+            }
+            while (!semesters.isEmpty() && semesters.get(semesters.size() - 1).isEmpty()) {
+                semesters.remove(semesters.size() - 1);
+            }
+            DegreePlan optimized = new DegreePlan();
+            for (List<String> semester : semesters) {
+                optimized.addSemester(semester);
+            }
+            return optimized;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package scheduler;
+
+import model.Course;
+import model.CourseDataLoader;
+import model.DegreePlan;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates a grid of what-if planning questions in parallel, eg how many
+ * semesters each major needs at 3 to 7 courses per semester, with and
+ * without AP credit for CIS 1100.
+ *
+ * Every cell of majors x max per semester x completed-course preset is an
+ * independent {@link Scheduler} run over the major's shared, read-only
+ * {@link PrereqGraph}, so cells run on the common fork/join pool without any
+ * locking. The result is a compact matrix of semester counts plus the
+ * bottleneck courses of each cell.
+ *
+ * Usage: PlanSweep [majors, eg CSCI,NETS] [caps, eg 3,4,5,6,7]
+ */
+public class PlanSweep {
+    private static final String SENIOR_PROJECT_1 = "Senior Project I";
+    private static final String SENIOR_PROJECT_2 = "Senior Project II";
+    private static final String WRITING_SEMINAR = "Writing Seminar";
+
+    private final Map<String, PrereqGraph> graphsByMajor;
+
+    // Graphs are only read, so one map can be swept by many callers at once
+    public PlanSweep(Map<String, PrereqGraph> graphsByMajor) {
+        this.graphsByMajor = Collections.unmodifiableMap(new LinkedHashMap<>(graphsByMajor));
+    }
+
+    /**
+     * Runs every combination of the given parameters.
+     *
+     * @param requestedCaps        Caps to try, eg 3, 4, 5, 6, 7. They are swept
+     *                             and reported in ascending order.
+     * @param completedPresets     Named sets of completed courses, eg "none" and
+     *                             "AP CIS 1100". Iteration order is kept in the
+     *                             summary.
+     */
+    public SweepResult run(List<Integer> requestedCaps, Map<String, Set<String>> completedPresets) {
+        List<Integer> maxPerSemesterValues = new ArrayList<>(new TreeSet<>(requestedCaps));
+        for (int maxPerSemester : maxPerSemesterValues) {
+            if (maxPerSemester <= 0) {
+                throw new IllegalArgumentException("Max courses per semester must be positive.");
+            }
+        }
+        List<Cell> grid = new ArrayList<>();
+        for (String major : graphsByMajor.keySet()) {
+            for (String preset : completedPresets.keySet()) {
+                for (int maxPerSemester : maxPerSemesterValues) {
+                    grid.add(new Cell(major, preset, maxPerSemester));
+                }
+            }
+        }
+
+        // Shortest plan each major and preset allows at any cap, shared by all of its cells
+        Map<String, Integer> chainLengths = new ConcurrentHashMap<>();
+        List<Cell> evaluated = grid.parallelStream()
+                .map(cell -> evaluate(cell, completedPresets.get(cell.preset), chainLengths))
+                .collect(Collectors.toList());
+        return new SweepResult(new ArrayList<>(graphsByMajor.keySet()), new ArrayList<>(completedPresets.keySet()),
+                List.copyOf(maxPerSemesterValues), evaluated);
+    }
+
+    private Cell evaluate(Cell cell, Set<String> completed, Map<String, Integer> chainLengths) {
+        PrereqGraph graph = graphsByMajor.get(cell.major);
+        DegreePlan plan = new Scheduler(graph).generateDegreePlan(cell.maxPerSemester, completed);
+        int semesters = plan.getSemesters().size();
+        // With room for every course in one semester only the prerequisite chain, including
+        // Senior Project II's own final semester, sets the length
+        int chainLength = chainLengths.computeIfAbsent(cell.major + '\u0000' + cell.preset,
+                key -> new Scheduler(graph).generateDegreePlan(Math.max(1, graph.getCoursesMap().size()), completed)
+                        .getSemesters().size());
+
+        List<String> bottlenecks = new ArrayList<>();
+        boolean chainBound = semesters > 0 && semesters <= chainLength;
+        if (chainBound) {
+            // Courses with no slack in a plan of this length lie on the chain that sets it
+            SemesterWindows windows = new SemesterWindows(graph, semesters, completed, Collections.emptyMap());
+            List<String> special = new ArrayList<>();
+            if (windows.isFeasible()) {
+                for (String courseId : graph.condensationOrder()) {
+                    if (!windows.contains(courseId) || windows.getSlack(courseId) != 0) {
+                        continue;
+                    }
+                    if (isRegular(courseId)) {
+                        bottlenecks.add(courseId);
+                    } else {
+                        special.add(courseId);
+                    }
+                }
+            }
+            if (bottlenecks.isEmpty()) {
+                bottlenecks = special; // Only the Writing Seminar and Senior Project sequence is tight
+            }
+        } else {
+            // Capacity bound, the plan is as long as it is because of the last courses squeezed in
+            for (int s = semesters - 1; s >= 0 && bottlenecks.isEmpty(); s--) {
+                for (String courseId : plan.getSemesters().get(s)) {
+                    if (isRegular(courseId)) {
+                        bottlenecks.add(courseId);
+                    }
+                }
+            }
+        }
+        return new Cell(cell.major, cell.preset, cell.maxPerSemester, semesters, chainLength, bottlenecks,
+                chainBound);
+    }
+
+    private static boolean isRegular(String courseId) {
+        return !courseId.equals(SENIOR_PROJECT_1) && !courseId.equals(SENIOR_PROJECT_2)
+                && !courseId.equals(WRITING_SEMINAR);
+    }
+
+    // One evaluated point of the grid
+    public static class Cell {
+        private final String major;
+        private final String preset;
+        private final int maxPerSemester;
+        private final int semesters;
+        private final int chainLength;
+        private final List<String> bottlenecks;
+        private final boolean chainBound;
+
+        private Cell(String major, String preset, int maxPerSemester) {
+            this(major, preset, maxPerSemester, -1, -1, Collections.emptyList(), false);
+        }
+
+        private Cell(String major, String preset, int maxPerSemester, int semesters, int chainLength,
+                List<String> bottlenecks, boolean chainBound) {
+            this.major = major;
+            this.preset = preset;
+            this.maxPerSemester = maxPerSemester;
+            this.semesters = semesters;
+            this.chainLength = chainLength;
+            this.bottlenecks = Collections.unmodifiableList(bottlenecks);
+            this.chainBound = chainBound;
+        }
+
+        public String getMajor() {
+            return major;
+        }
+
+        public String getPreset() {
+            return preset;
+        }
+
+        public int getMaxPerSemester() {
+            return maxPerSemester;
+        }
+
+        public int getSemesters() {
+            return semesters;
+        }
+
+        // Semesters the prerequisite chain needs with no cap, a lower bound for every cap
+        public int getChainLength() {
+            return chainLength;
+        }
+
+        /**
+         * Returns the courses that set the plan length: the zero-slack
+         * prerequisite chain when the plan is chain bound, otherwise the regular
+         * courses of the last semester.
+         */
+        public List<String> getBottlenecks() {
+            return bottlenecks;
+        }
+
+        // True if the plan is no longer than the prerequisite chain, so raising the cap can't shorten it
+        public boolean isChainBound() {
+            return chainBound;
+        }
+    }
+
+    public static class SweepResult {
+        private final List<String> majors;
+        private final List<String> presets;
+        private final List<Integer> maxPerSemesterValues;
+        private final Map<String, Cell> cells = new HashMap<>();
+
+        private SweepResult(List<String> majors, List<String> presets, List<Integer> maxPerSemesterValues,
+                List<Cell> evaluated) {
+            this.majors = Collections.unmodifiableList(majors);
+            this.presets = Collections.unmodifiableList(presets);
+            this.maxPerSemesterValues = maxPerSemesterValues;
+            for (Cell cell : evaluated) {
+                cells.put(key(cell.major, cell.preset, cell.maxPerSemester), cell);
+            }
+        }
+
+        private static String key(String major, String preset, int maxPerSemester) {
+            return major + '\u0000' + preset + '\u0000' + maxPerSemester;
+        }
+
+        public Cell getCell(String major, String preset, int maxPerSemester) {
+            return cells.get(key(major, preset, maxPerSemester));
+        }
+
+        public int getSemesters(String major, String preset, int maxPerSemester) {
+            Cell cell = getCell(major, preset, maxPerSemester);
+            return cell == null ? -1 : cell.semesters;
+        }
+
+        public List<Cell> getCells() {
+            List<Cell> ordered = new ArrayList<>();
+            for (String major : majors) {
+                for (String preset : presets) {
+                    for (int maxPerSemester : maxPerSemesterValues) {
+                        ordered.add(getCell(major, preset, maxPerSemester));
+                    }
+                }
+            }
+            return ordered;
+        }
+
+        // Prints the semester count matrix followed by the bottlenecks of every cell
+        public void printSummary() {
+            int labelWidth = 10;
+            for (String major : majors) {
+                for (String preset : presets) {
+                    labelWidth = Math.max(labelWidth, major.length() + preset.length() + 3);
+                }
+            }
+            StringBuilder header = new StringBuilder(String.format("%-" + labelWidth + "s", "max/sem"));
+            for (int maxPerSemester : maxPerSemesterValues) {
+                header.append(String.format("%5d", maxPerSemester));
+            }
+            System.out.println("Semesters needed:");
+            System.out.println(header);
+            for (String major : majors) {
+                for (String preset : presets) {
+                    StringBuilder row = new StringBuilder(String.format("%-" + labelWidth + "s", major + " / " + preset));
+                    for (int maxPerSemester : maxPerSemesterValues) {
+                        row.append(String.format("%5d", getSemesters(major, preset, maxPerSemester)));
+                    }
+                    System.out.println(row);
+                }
+            }
+
+            System.out.println("\nBottlenecks:");
+            for (String major : majors) {
+                for (String preset : presets) {
+                    Cell first = getCell(major, preset, maxPerSemesterValues.get(0));
+                    System.out.println(major + " / " + preset + " (prerequisite chain needs " + first.chainLength
+                            + " semesters):");
+                    // The greedy plan length need not fall steadily with the cap, so every cap is reported
+                    for (int maxPerSemester : maxPerSemesterValues) {
+                        Cell cell = getCell(major, preset, maxPerSemester);
+                        System.out.println(String.format("  %2d per semester: ", maxPerSemester)
+                                + (cell.chainBound ? "prerequisite chain " : "capacity bound, last courses ")
+                                + cell.bottlenecks);
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> majors = args.length > 0 ? Arrays.asList(args[0].split(",")) : List.of("CSCI", "NETS");
+        List<Integer> caps = new ArrayList<>();
+        for (String cap : (args.length > 1 ? args[1] : "3,4,5,6,7").split(",")) {
+            caps.add(Integer.parseInt(cap.trim()));
+        }
+
+        Map<String, PrereqGraph> graphs = new LinkedHashMap<>();
+        for (String major : majors) {
+            String code = major.trim().toUpperCase();
+            List<Course> courses = CourseDataLoader.findCoursesAndPrereqsInMajor(code);
+            if (courses.isEmpty()) {
+                System.err.println("Warning: No courses found for major '" + code + "', skipping it.");
+                continue;
+            }
+            graphs.put(code, new PrereqGraph(courses));
+        }
+        Map<String, Set<String>> presets = new LinkedHashMap<>();
+        presets.put("none", Collections.emptySet());
+        presets.put("AP CIS 1100", Set.of("CIS 1100"));
+
+        long start = System.nanoTime();
+        SweepResult result = new PlanSweep(graphs).run(caps, presets);
+        System.out.println(String.format("Swept %d plans in %.1f ms", result.getCells().size(),
+                (System.nanoTime() - start) / 1e6));
+        result.printSummary();
+    }
+}
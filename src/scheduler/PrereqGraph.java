@@ -2,10 +2,18 @@ package scheduler;
 
 import model.Course;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PrereqGraph {
     private final Map<String, Course> courses; // Map of courseId to Course object for ALL courses in the graph
     private final Map<String, List<String>> adjList; // Adjacency list key is courseId value is list of its successors
+    private final Set<String> autoAdded = new HashSet<>(); // Prerequisites that were not in the loaders list
+
+    // Strongly connected components in topological order of the condensation DAG
+    private final List<List<String>> components = new ArrayList<>();
+    private final Map<String, Integer> componentOf = new HashMap<>(); // courseId to index in components
+    private final List<String> condensationOrder = new ArrayList<>();
+    private final AtomicBoolean cyclesReported = new AtomicBoolean(); // Cycle warning printed for this graph
 
     private static final String SENIOR_PROJECT_1 = "Senior Project I";
     private static final String SENIOR_PROJECT_2 = "Senior Project II";
@@ -64,6 +72,7 @@ public class PrereqGraph {
                             courses.put(prereqCourseId, phantomPrereq);
                             adjList.put(prereqCourseId, new ArrayList<>());
                             knownCourseIds.add(prereqCourseId);
+                            autoAdded.add(prereqCourseId);
                             newPhantomAddedInPass = true;
                         }
                     }
@@ -105,6 +114,174 @@ public class PrereqGraph {
         if (adjList.containsKey(SENIOR_PROJECT_1)) {
             adjList.get(SENIOR_PROJECT_1).add(SENIOR_PROJECT_2);
         }
+
+        computeComponents();
+    }
+
+    private PrereqGraph(Map<String, Course> courses, Map<String, List<String>> adjList, Set<String> autoAdded) {
+        this.courses = courses;
+        this.adjList = adjList;
+        this.autoAdded.addAll(autoAdded);
+        computeComponents();
+    }
+
+    /**
+     * Combines graphs that were built separately (eg one per program) into a
+     * graph over the union of their courses, without discovering auto-added
+     * prerequisites again. When graphs disagree about a course, a real course
+     * beats an auto-added placeholder and otherwise the copy with more
+     * prerequisite groups wins, as in {@link MultiMajorPlanner}. Edges are
+     * rebuilt from the kept courses only, so a losing copy's prerequisites
+     * never leak into the merged graph.
+     */
+    public static PrereqGraph merge(Collection<PrereqGraph> graphs) {
+        if (graphs.size() == 1) {
+            return graphs.iterator().next();
+        }
+        Map<String, Course> courses = new HashMap<>();
+        Set<String> autoAdded = new HashSet<>();
+        for (PrereqGraph graph : graphs) {
+            for (Course course : graph.courses.values()) {
+                String courseId = course.getCourseId();
+                boolean placeholder = graph.autoAdded.contains(courseId);
+                Course kept = courses.get(courseId);
+                if (kept == null) {
+                    courses.put(courseId, course);
+                    if (placeholder) {
+                        autoAdded.add(courseId);
+                    }
+                } else if (!placeholder && autoAdded.remove(courseId)) {
+                    courses.put(courseId, course);
+                } else if (!placeholder && !autoAdded.contains(courseId)) {
+                    courses.put(courseId, richer(kept, course));
+                }
+            }
+        }
+
+        // Each graph holds every prerequisite of its courses, so every edge below has both ends
+        Map<String, List<String>> adjList = new HashMap<>();
+        for (String courseId : courses.keySet()) {
+            adjList.put(courseId, new ArrayList<>());
+        }
+        for (Course course : courses.values()) {
+            Set<String> linked = new HashSet<>(); // A prerequisite named in two groups is still one edge
+            for (List<String> prereqGroup : course.getPrerequisites()) {
+                for (String prereqCourseId : prereqGroup) {
+                    List<String> successors = adjList.get(prereqCourseId);
+                    if (successors != null && linked.add(prereqCourseId)) {
+                        successors.add(course.getCourseId());
+                    }
+                }
+            }
+        }
+
+        // Same graph rules as the constructor, the CIS 1100 pair can come from two different graphs
+        if (courses.containsKey("CIS 1100") && courses.containsKey("CIS 1200")) {
+            adjList.get("CIS 1100").add("CIS 1200");
+        }
+        for (String courseId : courses.keySet()) {
+            if (!courseId.equals(SENIOR_PROJECT_1) && !courseId.equals(SENIOR_PROJECT_2)) {
+                adjList.get(courseId).add(SENIOR_PROJECT_1);
+            }
+        }
+        adjList.get(SENIOR_PROJECT_1).add(SENIOR_PROJECT_2);
+        return new PrereqGraph(courses, adjList, autoAdded);
+    }
+
+    // When two graphs hold the same course keep the copy with more prerequisite information
+    private static Course richer(Course existing, Course candidate) {
+        return candidate.getPrerequisites().size() > existing.getPrerequisites().size() ? candidate : existing;
+    }
+
+    /**
+     * Iterative Tarjan's algorithm, linear in the size of the graph. Scraped
+     * prerequisite text occasionally produces cycles (corequisites or mis-parsed
+     * descriptions); collapsing each cycle into one component gives a DAG that
+     * can always be scheduled.
+     */
+    private void computeComponents() {
+        List<String> ids = new ArrayList<>(courses.keySet());
+        int n = ids.size();
+        Map<String, Integer> indexOfId = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexOfId.put(ids.get(i), i);
+        }
+        int[][] successors = new int[n][];
+        for (int i = 0; i < n; i++) {
+            List<String> targets = adjList.getOrDefault(ids.get(i), Collections.emptyList());
+            int[] edges = new int[targets.size()];
+            int count = 0;
+            for (String target : targets) {
+                Integer targetIndex = indexOfId.get(target);
+                if (targetIndex != null) {
+                    edges[count++] = targetIndex;
+                }
+            }
+            successors[i] = Arrays.copyOf(edges, count);
+        }
+
+        int[] index = new int[n];
+        int[] lowLink = new int[n];
+        int[] nextEdge = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] componentStack = new int[n];
+        int[] callStack = new int[n];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int componentTop = 0;
+        List<List<String>> reversedComponents = new ArrayList<>(); // Tarjan emits sinks first
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int callTop = 0;
+            callStack[callTop++] = root;
+            index[root] = lowLink[root] = counter++;
+            componentStack[componentTop++] = root;
+            onStack[root] = true;
+
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                if (nextEdge[v] < successors[v].length) {
+                    int w = successors[v][nextEdge[v]++];
+                    if (index[w] == -1) {
+                        index[w] = lowLink[w] = counter++;
+                        componentStack[componentTop++] = w;
+                        onStack[w] = true;
+                        callStack[callTop++] = w;
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (lowLink[v] == index[v]) {
+                    List<String> component = new ArrayList<>();
+                    int w;
+                    do {
+                        w = componentStack[--componentTop];
+                        onStack[w] = false;
+                        component.add(ids.get(w));
+                    } while (w != v);
+                    reversedComponents.add(Collections.unmodifiableList(component));
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                }
+            }
+        }
+
+        for (int i = reversedComponents.size() - 1; i >= 0; i--) {
+            List<String> component = reversedComponents.get(i);
+            for (String courseId : component) {
+                componentOf.put(courseId, components.size());
+                condensationOrder.add(courseId);
+            }
+            components.add(component);
+        }
     }
 
     /**
@@ -172,6 +349,66 @@ public class PrereqGraph {
         return prereqs;
     }
 
+    /**
+     * Returns the strongly connected components of the graph in topological
+     * order: every prerequisite edge between two different components points
+     * from an earlier component to a later one.
+     */
+    public List<List<String>> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * Returns every prerequisite cycle in the graph, one list of course IDs per
+     * cyclic component. An empty result means the graph is a DAG.
+     */
+    public List<List<String>> findCycles() {
+        List<List<String>> cycles = new ArrayList<>();
+        for (List<String> component : components) {
+            if (isCyclic(component.get(0))) {
+                cycles.add(component);
+            }
+        }
+        return cycles;
+    }
+
+    // True only for the first caller, so a graph planned many times warns about its cycles once
+    boolean markCyclesReported() {
+        return cyclesReported.compareAndSet(false, true);
+    }
+
+    // Returns the index into getComponents() of the component containing a course, or -1
+    public int getComponentIndex(String courseId) {
+        return componentOf.getOrDefault(courseId, -1);
+    }
+
+    // True if the course lies on a prerequisite cycle, including a course that requires itself
+    public boolean isCyclic(String courseId) {
+        int componentIndex = getComponentIndex(courseId);
+        if (componentIndex == -1) {
+            return false;
+        }
+        if (components.get(componentIndex).size() > 1) {
+            return true;
+        }
+        return adjList.getOrDefault(courseId, Collections.emptyList()).contains(courseId);
+    }
+
+    // True if both courses lie on the same prerequisite cycle and must be taken together
+    public boolean areCorequisites(String courseA, String courseB) {
+        int componentIndex = getComponentIndex(courseA);
+        return componentIndex != -1 && componentIndex == getComponentIndex(courseB) && isCyclic(courseA);
+    }
+
+    /**
+     * Returns a topological order of the condensation DAG expanded back to course
+     * IDs, with the courses of each component next to each other. Unlike
+     * {@link #topoSort()} this never fails on cycles.
+     */
+    public List<String> condensationOrder() {
+        return Collections.unmodifiableList(condensationOrder);
+    }
+
     // Getter for the courses map might be useful for the Scheduler
     public Map<String, Course> getCoursesMap() {
         return Collections.unmodifiableMap(courses);
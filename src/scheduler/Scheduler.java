@@ -3,6 +3,7 @@ package scheduler;
 import model.Course;
 import model.DegreePlan;
 import java.util.*;
+import java.util.stream.Stream;
 
 public class Scheduler {
     private final PrereqGraph graph;
@@ -15,29 +16,143 @@ public class Scheduler {
     private static final String WRITING_SEMINAR = "Writing Seminar";
 
     public Scheduler(List<Course> coursesFromLoader) {
-        this.graph = new PrereqGraph(coursesFromLoader);
+        this(new PrereqGraph(coursesFromLoader));
+    }
+
+    // Reuses an already built graph so long running callers don't rebuild it per plan
+    public Scheduler(PrereqGraph graph) {
+        this.graph = Objects.requireNonNull(graph, "Graph cannot be null");
         this.allCoursesMap = Collections.unmodifiableMap(this.graph.getCoursesMap());
     }
 
+    public PrereqGraph getGraph() {
+        return graph;
+    }
+
     // Returns a single valid linear sequence of courses
+    // Prerequisite cycles are reported and their courses kept next to each other
     public List<String> generateLinearSchedule() {
-        try {
-            return graph.topoSort();
-        } catch (IllegalStateException e) {
-            System.err.println("Scheduling error (cycle detected): " + e.getMessage());
-            return new ArrayList<>();
-        }
+        warnAboutCycles();
+        return new ArrayList<>(graph.condensationOrder());
     }
 
     // Generates a semesterbysemester plan
     public DegreePlan generateDegreePlan(int maxCoursesPerSemester) {
+        return generateDegreePlan(maxCoursesPerSemester, Collections.emptySet());
+    }
+
+    /**
+     * Generates a semester-by-semester plan for a student who has already
+     * completed some courses (AP credit, transfer credit, earlier semesters).
+     * Completed courses are left out of the plan but count towards prerequisites.
+     *
+     * @param maxCoursesPerSemester The maximum number of courses in any semester.
+     * @param alreadyCompleted      Course IDs the student has already completed.
+     * @return The generated plan.
+     */
+    public DegreePlan generateDegreePlan(int maxCoursesPerSemester, Set<String> alreadyCompleted) {
+        if (maxCoursesPerSemester <= 0) {
+            throw new IllegalArgumentException("Max courses per semester must be positive.");
+        }
+        return buildPlan(maxCoursesPerSemester, alreadyCompleted, Collections.emptyMap(), null, null);
+    }
+
+    /**
+     * Same as {@link #generateDegreePlan(int, Set)}, but also hands each semester
+     * to the listener as soon as it is final, so the plan can be written out
+     * while later semesters are still being scheduled.
+     */
+    public DegreePlan generateDegreePlan(int maxCoursesPerSemester, Set<String> alreadyCompleted,
+            SemesterListener listener) {
         if (maxCoursesPerSemester <= 0) {
             throw new IllegalArgumentException("Max courses per semester must be positive.");
         }
+        return buildPlan(maxCoursesPerSemester, alreadyCompleted, Collections.emptyMap(), null,
+                Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    /**
+     * Computes earliest and latest semester windows for every course that still
+     * has to be taken, for a plan that must finish within maxSemesters.
+     *
+     * @param pinnedSemesters Courses the student wants in a given 0-based semester.
+     */
+    public SemesterWindows computeWindows(int maxSemesters, Set<String> alreadyCompleted,
+            Map<String, Integer> pinnedSemesters) {
+        return new SemesterWindows(graph, maxSemesters, alreadyCompleted, pinnedSemesters);
+    }
+
+    /**
+     * Generates a plan that has to finish within maxSemesters, honouring pinned
+     * courses. The request is checked against the semester windows first, so an
+     * impossible one (eg 6 semesters at 4 courses each for a 30 course major)
+     * fails immediately instead of after a full scheduling run.
+     *
+     * @param maxCoursesPerSemester The maximum number of courses in any semester.
+     * @param maxSemesters          The deadline, eg 8 to graduate in four years.
+     * @param alreadyCompleted      Course IDs the student has already completed.
+     * @param pinnedSemesters       Courses the student wants in a given 0-based semester.
+     * @return The generated plan.
+     * @throws IllegalArgumentException if the windows prove the request infeasible.
+     * @throws InfeasiblePlanException  if the finished plan misses the deadline or
+     *                                  a pinned course is not in its semester.
+     */
+    public DegreePlan generateDegreePlan(int maxCoursesPerSemester, int maxSemesters, Set<String> alreadyCompleted,
+            Map<String, Integer> pinnedSemesters) {
+        return generateDegreePlan(maxCoursesPerSemester, maxSemesters, alreadyCompleted, pinnedSemesters, null);
+    }
+
+    // Deadline version that streams finalized semesters to a listener, which may be null.
+    // A plan that then fails the deadline or pin check has already been streamed
+    public DegreePlan generateDegreePlan(int maxCoursesPerSemester, int maxSemesters, Set<String> alreadyCompleted,
+            Map<String, Integer> pinnedSemesters, SemesterListener listener) {
+        if (maxCoursesPerSemester <= 0) {
+            throw new IllegalArgumentException("Max courses per semester must be positive.");
+        }
+        SemesterWindows windows = computeWindows(maxSemesters, alreadyCompleted, pinnedSemesters);
+        String problem = windows.checkCapacity(maxCoursesPerSemester);
+        if (problem != null) {
+            throw new IllegalArgumentException("Infeasible request: " + problem + ".");
+        }
+
+        DegreePlan plan = buildPlan(maxCoursesPerSemester, alreadyCompleted, pinnedSemesters, windows, listener);
+        List<List<String>> semesters = plan.getSemesters();
+        if (semesters.size() > maxSemesters) {
+            throw new InfeasiblePlanException("Could only find a plan with " + semesters.size()
+                    + " semesters, more than the requested " + maxSemesters + ".", plan);
+        }
+        for (Map.Entry<String, Integer> pin : pinnedSemesters.entrySet()) {
+            int pinnedIndex = pin.getValue();
+            if (pinnedIndex >= semesters.size() || !semesters.get(pinnedIndex).contains(pin.getKey())) {
+                throw new InfeasiblePlanException("Could not place " + pin.getKey() + " in its pinned semester "
+                        + (pinnedIndex + 1) + ".", plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Lazily enumerates distinct valid plans, cheapest first (fewest semesters,
+     * then best balanced). See {@link PlanEnumerator}.
+     *
+     * @param maxSemesters Deadline used to prune the search, or 0 for none.
+     */
+    public Stream<DegreePlan> alternativePlans(int maxCoursesPerSemester, int maxSemesters,
+            Set<String> alreadyCompleted) {
+        return new PlanEnumerator(graph, maxCoursesPerSemester, maxSemesters, alreadyCompleted).stream();
+    }
+
+    // The greedy scheduler. Windows and listener may be null
+    private DegreePlan buildPlan(int maxCoursesPerSemester, Set<String> alreadyCompleted,
+            Map<String, Integer> pinnedSemesters, SemesterWindows windows, SemesterListener listener) {
         DegreePlan plan = new DegreePlan();
-        Set<String> completedCourses = new HashSet<>();
+        SemesterEmitter emitter = new SemesterEmitter(listener);
+        Set<String> completedCourses = new HashSet<>(alreadyCompleted);
         // Use course IDs from the graphs understanding of schedulable courses
         Set<String> coursesToSchedule = new HashSet<>(this.allCoursesMap.keySet());
+        coursesToSchedule.removeAll(alreadyCompleted);
+
+        warnAboutCycles();
 
         // Remove Senior Projects from the pool before any scheduling happens
         coursesToSchedule.remove(SENIOR_PROJECT_1);
@@ -48,20 +163,21 @@ public class Scheduler {
         List<String> semester2Courses = new ArrayList<>();
 
         // Special placement for Semester 1
-        if (coursesToSchedule.contains(WRITING_SEMINAR)) {
+        if (coursesToSchedule.contains(WRITING_SEMINAR) && !isPinnedAfter(WRITING_SEMINAR, 0, pinnedSemesters)) {
             semester1Courses.add(WRITING_SEMINAR);
             coursesToSchedule.remove(WRITING_SEMINAR);
             completedCourses.add(WRITING_SEMINAR);
         }
         // CIS 1100
-        if (coursesToSchedule.contains(CIS_1100)) {
-            // Check if its prerequisites are met
+        if (coursesToSchedule.contains(CIS_1100) && !isPinnedAfter(CIS_1100, 0, pinnedSemesters)) {
+            // Check if its prerequisites are met, for the whole cycle if CIS 1100 lies on one
             Course cis1100 = allCoursesMap.get(CIS_1100);
-            if (cis1100 != null && arePrerequisitesMet(cis1100, completedCourses)) { // Pass empty set initially
-                if (semester1Courses.size() < maxCoursesPerSemester) { // Check space
-                    semester1Courses.add(CIS_1100);
-                    coursesToSchedule.remove(CIS_1100);
-                    completedCourses.add(CIS_1100); // Add to completed after adding to semester 1
+            List<String> group = corequisiteGroup(CIS_1100, coursesToSchedule);
+            if (cis1100 != null && isGroupEligible(group, 0, completedCourses, pinnedSemesters)) {
+                if (semester1Courses.size() + group.size() <= maxCoursesPerSemester) { // Check space
+                    semester1Courses.addAll(group);
+                    coursesToSchedule.removeAll(group);
+                    completedCourses.addAll(group); // Add to completed after adding to semester 1
                 } else {
                     System.err.println("Warning: Not enough space in Semester 1 to force placement of " + CIS_1100);
                 }
@@ -84,26 +200,28 @@ public class Scheduler {
             eligibleForSem1.add(eligibleCourse);
         }
 
-        int sem1FillCount = maxCoursesPerSemester - semester1Courses.size();
-        for (int i = 0; i < sem1FillCount && i < eligibleForSem1.size(); i++) {
-            String courseToAdd = eligibleForSem1.get(i);
-            semester1Courses.add(courseToAdd);
-            coursesToSchedule.remove(courseToAdd);
-            completedCourses.add(courseToAdd);
-        }
+        eligibleForSem1 = prioritize(eligibleForSem1, 0, pinnedSemesters, windows);
+        List<String> addedToSem1 = fillSemester(semester1Courses, eligibleForSem1, coursesToSchedule,
+                maxCoursesPerSemester);
+        coursesToSchedule.removeAll(addedToSem1);
+        completedCourses.addAll(addedToSem1);
         if (!semester1Courses.isEmpty()) {
             completedCourses.addAll(semester1Courses);
             plan.addSemester(semester1Courses);
+            emitter.emitSettled(plan);
         }
 
         // Special placement for Semester 2
-        if (coursesToSchedule.contains(CIS_1200) && completedCourses.contains(CIS_1100)) {
+        int semester2Index = plan.getSemesters().size();
+        if (coursesToSchedule.contains(CIS_1200) && completedCourses.contains(CIS_1100)
+                && !isPinnedAfter(CIS_1200, semester2Index, pinnedSemesters)) {
             Course cis1200 = allCoursesMap.get(CIS_1200);
-            // Check if its other prerequisites are met by completedCourses
-            if (cis1200 != null && arePrerequisitesMet(cis1200, completedCourses)) {
-                if (semester2Courses.size() < maxCoursesPerSemester) { // Check space
-                    semester2Courses.add(CIS_1200);
-                    coursesToSchedule.remove(CIS_1200);
+            // Check if its other prerequisites are met by completedCourses, again for its whole cycle
+            List<String> group = corequisiteGroup(CIS_1200, coursesToSchedule);
+            if (cis1200 != null && isGroupEligible(group, semester2Index, completedCourses, pinnedSemesters)) {
+                if (semester2Courses.size() + group.size() <= maxCoursesPerSemester) { // Check space
+                    semester2Courses.addAll(group);
+                    coursesToSchedule.removeAll(group);
                 } else {
                     System.err.println("Warning: Not enough space in Semester 2 to force placement of " + CIS_1200);
                 }
@@ -113,71 +231,60 @@ public class Scheduler {
         }
 
         // Fill rest of Semester 2
-        List<String> eligibleForSem2 = findEligibleCourses(coursesToSchedule, completedCourses);
-        int sem2FillCount = maxCoursesPerSemester - semester2Courses.size();
-        List<String> addedToSem2 = new ArrayList<>();
-        for (int i = 0; i < sem2FillCount && i < eligibleForSem2.size(); i++) {
-            String courseToAdd = eligibleForSem2.get(i);
-            semester2Courses.add(courseToAdd);
-            addedToSem2.add(courseToAdd);
-        }
+        List<String> eligibleForSem2 = prioritize(findEligibleCourses(coursesToSchedule, completedCourses),
+                semester2Index, pinnedSemesters, windows);
+        List<String> addedToSem2 = fillSemester(semester2Courses, eligibleForSem2, coursesToSchedule,
+                maxCoursesPerSemester);
         // Update completedCourses and coursesToSchedule after filling semester 2
         coursesToSchedule.removeAll(addedToSem2);
         completedCourses.addAll(semester2Courses); // Add everything from sem 2
         if (!semester2Courses.isEmpty()) {
             plan.addSemester(semester2Courses);
+            emitter.emitSettled(plan);
         }
 
         // Main loop for remaining semesters
-        try {
-            List<String> initialProcessingOrder = graph.topoSort();
-
-            while (!coursesToSchedule.isEmpty()) {
-                List<String> currentSemesterCourses = new ArrayList<>();
-                List<String> eligibleNow = findEligibleCourses(coursesToSchedule, completedCourses);
-
-                eligibleNow.sort(Comparator.comparingInt(courseId -> {
-                    int index = initialProcessingOrder.indexOf(courseId);
-                    return index == -1 ? Integer.MAX_VALUE : index;
-                }));
-
-                if (eligibleNow.isEmpty() && !coursesToSchedule.isEmpty()) {
-                    System.err.println(
-                            "Error: Cannot find eligible courses to schedule during main loop. Remaining: "
-                                    + coursesToSchedule);
-                    System.err.println("This might indicate unsatisfiable prerequisites or a data issue.");
-                    plan.addSemester(new ArrayList<>(coursesToSchedule));
-                    coursesToSchedule.clear();
-                    break;
-                }
+        // The condensation order never fails, prerequisite cycles are kept together instead
+        Map<String, Integer> processingIndex = new HashMap<>();
+        List<String> initialProcessingOrder = graph.condensationOrder();
+        for (int i = 0; i < initialProcessingOrder.size(); i++) {
+            processingIndex.put(initialProcessingOrder.get(i), i);
+        }
 
-                int coursesAddedThisSemester = 0;
-                List<String> addedThisSem = new ArrayList<>();
-                for (String courseToTake : eligibleNow) {
-                    if (coursesAddedThisSemester < maxCoursesPerSemester) {
-                        currentSemesterCourses.add(courseToTake);
-                        addedThisSem.add(courseToTake);
-                        coursesAddedThisSemester++;
-                    } else {
-                        break;
-                    }
-                }
+        while (!coursesToSchedule.isEmpty()) {
+            List<String> currentSemesterCourses = new ArrayList<>();
+            List<String> eligibleNow = findEligibleCourses(coursesToSchedule, completedCourses);
 
-                if (!currentSemesterCourses.isEmpty()) {
-                    plan.addSemester(currentSemesterCourses);
-                    completedCourses.addAll(currentSemesterCourses);
-                    coursesToSchedule.removeAll(addedThisSem);
-                } else if (!coursesToSchedule.isEmpty()) {
-                    System.err.println(
-                            "Warning: No courses added to semester despite eligibles during main loop. Remaining: "
-                                    + coursesToSchedule);
-                    plan.addSemester(new ArrayList<>(coursesToSchedule));
-                    coursesToSchedule.clear();
-                    break;
-                }
+            eligibleNow.sort(Comparator.comparingInt(
+                    courseId -> processingIndex.getOrDefault(courseId, Integer.MAX_VALUE)));
+            eligibleNow = prioritize(eligibleNow, plan.getSemesters().size(), pinnedSemesters, windows);
+
+            if (eligibleNow.isEmpty() && !coursesToSchedule.isEmpty()) {
+                System.err.println(
+                        "Error: Cannot find eligible courses to schedule during main loop. Remaining: "
+                                + coursesToSchedule);
+                System.err.println("This might indicate unsatisfiable prerequisites or a data issue.");
+                plan.addSemester(new ArrayList<>(coursesToSchedule));
+                coursesToSchedule.clear();
+                break;
+            }
+
+            List<String> addedThisSem = fillSemester(currentSemesterCourses, eligibleNow, coursesToSchedule,
+                    maxCoursesPerSemester);
+
+            if (!currentSemesterCourses.isEmpty()) {
+                plan.addSemester(currentSemesterCourses);
+                emitter.emitSettled(plan);
+                completedCourses.addAll(currentSemesterCourses);
+                coursesToSchedule.removeAll(addedThisSem);
+            } else if (!coursesToSchedule.isEmpty()) {
+                System.err.println(
+                        "Warning: No courses added to semester despite eligibles during main loop. Remaining: "
+                                + coursesToSchedule);
+                plan.addSemester(new ArrayList<>(coursesToSchedule));
+                coursesToSchedule.clear();
+                break;
             }
-        } catch (IllegalStateException e) {
-            System.err.println("Scheduling error (cycle detected by topoSort): " + e.getMessage());
         }
 
         // Special placement of Senior Projects
@@ -233,7 +340,8 @@ public class Scheduler {
                     break;
                 }
             }
-            if (sp1_final_index == -1 && allCoursesMap.containsKey(SENIOR_PROJECT_1)) {
+            if (sp1_final_index == -1 && allCoursesMap.containsKey(SENIOR_PROJECT_1)
+                    && !alreadyCompleted.contains(SENIOR_PROJECT_1)) {
                 System.err.println(
                         "Warning: SP1 marked completed but not found in plan! Cannot determine placement for SP2.");
             }
@@ -241,15 +349,17 @@ public class Scheduler {
 
         // Place Senior Project II
         if (allCoursesMap.containsKey(SENIOR_PROJECT_2) && !completedCourses.contains(SENIOR_PROJECT_2)) {
-            if (!completedCourses.contains(SENIOR_PROJECT_1) || sp1_final_index == -1) {
+            boolean sp1_before_plan = alreadyCompleted.contains(SENIOR_PROJECT_1);
+            if (!sp1_before_plan && (!completedCourses.contains(SENIOR_PROJECT_1) || sp1_final_index == -1)) {
                 System.err.println("Error: Cannot place " + SENIOR_PROJECT_2 + " because prerequisite "
                         + SENIOR_PROJECT_1 + " was not placed successfully.");
             } else {
                 boolean sp2_placed = false;
                 int currentNumSemesters = semesters.size();
-                int targetIndexForSP2 = sp1_final_index + 1; // Target semester AFTER SP1
+                // Target semester AFTER SP1, or the last one if SP1 was completed before this plan
+                int targetIndexForSP2 = sp1_before_plan ? currentNumSemesters - 1 : sp1_final_index + 1;
 
-                if (targetIndexForSP2 < currentNumSemesters) {
+                if (targetIndexForSP2 >= 0 && targetIndexForSP2 < currentNumSemesters) {
                     List<String> targetSem = semesters.get(targetIndexForSP2);
                     if (targetSem.size() < maxCoursesPerSemester) {
                         targetSem.add(SENIOR_PROJECT_2);
@@ -268,9 +378,138 @@ public class Scheduler {
             }
         }
 
+        emitter.emitRemaining(plan);
         return plan;
     }
 
+    // Passes semesters to a listener once the Senior Project placement can no longer touch them
+    private static class SemesterEmitter {
+        // Senior Project I goes in one of the last two semesters of the greedy plan
+        private static final int UNSETTLED_SEMESTERS = 2;
+
+        private final SemesterListener listener; // Null when nobody is listening
+        private int emitted;
+
+        SemesterEmitter(SemesterListener listener) {
+            this.listener = listener;
+        }
+
+        void emitSettled(DegreePlan plan) {
+            emitUpTo(plan.getSemesters(), plan.getSemesters().size() - UNSETTLED_SEMESTERS);
+        }
+
+        void emitRemaining(DegreePlan plan) {
+            emitUpTo(plan.getSemesters(), plan.getSemesters().size());
+            if (listener != null) {
+                listener.planFinished(plan.getSemesters().size());
+            }
+        }
+
+        private void emitUpTo(List<List<String>> semesters, int end) {
+            if (listener == null) {
+                return;
+            }
+            while (emitted < end) {
+                listener.semesterFinalized(emitted, semesters.get(emitted));
+                emitted++;
+            }
+        }
+    }
+
+    // True if the course is pinned to a semester after the given one
+    private static boolean isPinnedAfter(String courseId, int semesterIndex, Map<String, Integer> pinnedSemesters) {
+        Integer pin = pinnedSemesters.get(courseId);
+        return pin != null && pin > semesterIndex;
+    }
+
+    // Orders eligible courses for a semester: courses pinned here (or overdue) first, then by least
+    // room in their window. Courses pinned to a later semester are held back
+    private List<String> prioritize(List<String> eligible, int semesterIndex, Map<String, Integer> pinnedSemesters,
+            SemesterWindows windows) {
+        if (pinnedSemesters.isEmpty() && windows == null) {
+            return eligible;
+        }
+        List<String> ordered = new ArrayList<>();
+        for (String courseId : eligible) {
+            if (!isPinnedAfter(courseId, semesterIndex, pinnedSemesters)) {
+                ordered.add(courseId);
+            }
+        }
+        if (windows != null) {
+            ordered.sort(Comparator.comparingInt(courseId -> windows.contains(courseId)
+                    ? windows.getLatest(courseId) : Integer.MAX_VALUE));
+        }
+        ordered.sort(Comparator.comparing(courseId -> !pinnedSemesters.containsKey(courseId)));
+        return ordered;
+    }
+
+    // Adds eligible courses to a semester up to the cap and returns the ones added.
+    // The courses of a prerequisite cycle are only ever added together
+    private List<String> fillSemester(List<String> semester, List<String> eligible, Set<String> coursesToSchedule,
+            int maxCoursesPerSemester) {
+        List<String> added = new ArrayList<>();
+        Set<String> eligibleSet = new HashSet<>(eligible);
+        for (String courseId : eligible) {
+            if (semester.size() >= maxCoursesPerSemester) {
+                break;
+            }
+            if (added.contains(courseId)) {
+                continue; // Already placed with the rest of its cycle
+            }
+            List<String> group = corequisiteGroup(courseId, coursesToSchedule);
+            if (!eligibleSet.containsAll(group)) {
+                continue;
+            }
+            if (semester.size() + group.size() > maxCoursesPerSemester) {
+                if (!semester.isEmpty()) {
+                    continue; // Try a smaller group, this cycle waits for an emptier semester
+                }
+                System.err.println("Warning: Prerequisite cycle " + group + " exceeds " + maxCoursesPerSemester
+                        + " courses per semester, placing it in one semester anyway.");
+            }
+            semester.addAll(group);
+            added.addAll(group);
+        }
+        return added;
+    }
+
+    // The unscheduled courses that must share a semester with the given course
+    private List<String> corequisiteGroup(String courseId, Set<String> coursesToSchedule) {
+        if (!graph.isCyclic(courseId)) {
+            return Collections.singletonList(courseId);
+        }
+        List<String> group = new ArrayList<>();
+        for (String member : graph.getComponents().get(graph.getComponentIndex(courseId))) {
+            if (coursesToSchedule.contains(member)) {
+                group.add(member);
+            }
+        }
+        return group;
+    }
+
+    // True if every course of a corequisite group can be taken in the given semester
+    private boolean isGroupEligible(List<String> group, int semesterIndex, Set<String> completedCourses,
+            Map<String, Integer> pinnedSemesters) {
+        for (String courseId : group) {
+            if (!arePrerequisitesMet(allCoursesMap.get(courseId), completedCourses)
+                    || isPinnedAfter(courseId, semesterIndex, pinnedSemesters)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Prints the prerequisite cycles the first time this graph is scheduled
+    private void warnAboutCycles() {
+        if (!graph.markCyclesReported()) {
+            return;
+        }
+        List<List<String>> cycles = graph.findCycles();
+        if (!cycles.isEmpty()) {
+            System.err.println("Warning: Prerequisite cycles found, scheduling each as corequisites: " + cycles);
+        }
+    }
+
     private List<String> findEligibleCourses(Set<String> coursesToConsider, Set<String> completedCourses) {
         List<String> eligible = new ArrayList<>();
         for (String courseId : coursesToConsider) {
@@ -298,7 +537,9 @@ public class Scheduler {
             }
             boolean orGroupSatisfied = false;
             for (String prereqCourseId : orGroup) {
-                if (completedCourses.contains(prereqCourseId)) {
+                // A prerequisite on the same cycle is treated as a corequisite taken alongside
+                if (completedCourses.contains(prereqCourseId)
+                        || graph.areCorequisites(course.getCourseId(), prereqCourseId)) {
                     orGroupSatisfied = true;
                     break; // This OR group is satisfied
                 }
@@ -0,0 +1,26 @@
+package scheduler;
+
+import java.util.List;
+
+/**
+ * Receives a plan from {@link Scheduler} one semester at a time, as soon as
+ * each semester can no longer change.
+ *
+ * The Senior Projects are placed after everything else, in the last two
+ * semesters or new ones after them, so a semester is final once two more have
+ * been scheduled behind it. The last semesters arrive when the plan is done,
+ * followed by {@link #planFinished}.
+ */
+public interface SemesterListener {
+
+    /**
+     * @param semesterIndex 0-based index of the semester in the plan.
+     * @param courses       The semester's courses. The list is not changed
+     *                      afterwards but must not be modified.
+     */
+    void semesterFinalized(int semesterIndex, List<String> courses);
+
+    // Called once after the last semester of a plan
+    default void planFinished(int semesterCount) {
+    }
+}
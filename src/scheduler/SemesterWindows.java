@@ -0,0 +1,304 @@
+package scheduler;
+
+import model.Course;
+import java.util.*;
+
+/**
+ * Earliest and latest semester windows for every course in a
+ * {@link PrereqGraph}, given a deadline (total number of semesters).
+ *
+ * The earliest semester is the length of the shortest way to satisfy the
+ * course's prerequisite chain (OR groups take their quickest member). The
+ * latest semester is how late a course can start and still leave room for
+ * everything that strictly depends on it before the deadline. Completed
+ * courses drop out, pinned courses fix their own window, and both changes are
+ * propagated through the graph until nothing tightens further.
+ *
+ * Semesters are 0-based indices into {@link model.DegreePlan#getSemesters()}.
+ * Every bound is a necessary condition: an empty window or an overfull range
+ * of semesters proves a request infeasible without running the scheduler.
+ */
+public class SemesterWindows {
+    private static final String SENIOR_PROJECT_1 = "Senior Project I";
+    private static final String SENIOR_PROJECT_2 = "Senior Project II";
+
+    private final PrereqGraph graph;
+    private final int totalSemesters;
+    private final Set<String> completed;
+    private final Map<String, Integer> earliest = new HashMap<>();
+    private final Map<String, Integer> latest = new HashMap<>();
+    // Successors that can't be taken without this course, with the number of semesters they must follow it by
+    private final Map<String, Map<String, Integer>> requiredSuccessors = new HashMap<>();
+    // Predecessors added by graph rules rather than by the course's own prerequisite list
+    private final Map<String, Map<String, Integer>> rulePredecessors = new HashMap<>();
+    private final int[] pinnedPerSemester; // Number of courses pinned to each semester
+    private String infeasibilityReason; // null while feasible
+
+    /**
+     * @param graph          The prerequisite graph.
+     * @param totalSemesters The deadline, eg 8 to graduate in four years.
+     * @param completed      Courses the student has already taken.
+     * @param pinned         Courses the student wants in a specific 0-based semester.
+     */
+    public SemesterWindows(PrereqGraph graph, int totalSemesters, Set<String> completed,
+            Map<String, Integer> pinned) {
+        if (totalSemesters <= 0) {
+            throw new IllegalArgumentException("Total semesters must be positive.");
+        }
+        this.graph = graph;
+        this.totalSemesters = totalSemesters;
+        this.completed = Collections.unmodifiableSet(new HashSet<>(completed));
+        this.pinnedPerSemester = new int[totalSemesters];
+
+        for (String courseId : graph.getCoursesMap().keySet()) {
+            if (completed.contains(courseId)) {
+                continue;
+            }
+            earliest.put(courseId, 0);
+            // Senior Project I always needs a later semester for Senior Project II
+            latest.put(courseId, courseId.equals(SENIOR_PROJECT_1) ? totalSemesters - 2 : totalSemesters - 1);
+        }
+        collectRequiredEdges();
+
+        for (Map.Entry<String, Integer> pin : pinned.entrySet()) {
+            String courseId = pin.getKey();
+            if (pin.getValue() < 0 || pin.getValue() >= totalSemesters) {
+                fail(courseId + " is pinned to semester " + (pin.getValue() + 1) + " outside the "
+                        + totalSemesters + " semester plan");
+                return;
+            }
+            if (!earliest.containsKey(courseId)) {
+                if (completed.contains(courseId)) {
+                    fail(courseId + " is pinned to semester " + (pin.getValue() + 1) + " but already completed");
+                } else {
+                    fail(courseId + " is pinned but not part of this program");
+                }
+                return;
+            }
+            pinnedPerSemester[pin.getValue()]++;
+            earliest.put(courseId, Math.max(earliest.get(courseId), pin.getValue()));
+            latest.put(courseId, Math.min(latest.get(courseId), pin.getValue()));
+        }
+
+        propagate();
+    }
+
+    public SemesterWindows(PrereqGraph graph, int totalSemesters) {
+        this(graph, totalSemesters, Collections.emptySet(), Collections.emptyMap());
+    }
+
+    // Edges a schedule can never work around: single-course prerequisite groups and graph-only rules
+    private void collectRequiredEdges() {
+        Map<String, Course> coursesMap = graph.getCoursesMap();
+        for (Map.Entry<String, List<String>> entry : graph.getAdjList().entrySet()) {
+            String prereq = entry.getKey();
+            for (String successor : entry.getValue()) {
+                // The Scheduler places Senior Project I next to the last regular courses, not after them
+                if (successor.equals(SENIOR_PROJECT_1) || !earliest.containsKey(successor)
+                        || !earliest.containsKey(prereq)) {
+                    continue;
+                }
+                Course successorCourse = coursesMap.get(successor);
+                boolean required = true;
+                for (List<String> orGroup : successorCourse.getPrerequisites()) {
+                    if (orGroup.contains(prereq) && orGroup.size() > 1) {
+                        required = false; // Another member of the OR group can stand in
+                        break;
+                    }
+                }
+                if (required) {
+                    int gap = graph.areCorequisites(prereq, successor) ? 0 : 1;
+                    requiredSuccessors.computeIfAbsent(prereq, id -> new HashMap<>()).merge(successor, gap,
+                            Math::max);
+                    if (!isPrerequisiteOf(prereq, successorCourse)) {
+                        rulePredecessors.computeIfAbsent(successor, id -> new HashMap<>()).merge(prereq, gap,
+                                Math::max);
+                    }
+                }
+            }
+        }
+    }
+
+    // Tightens windows to a fixed point: earliest forwards along prerequisites, latest backwards
+    private void propagate() {
+        List<String> order = graph.condensationOrder();
+        boolean changed = true;
+        while (changed && infeasibilityReason == null) {
+            changed = false;
+            for (String courseId : order) {
+                Integer current = earliest.get(courseId);
+                if (current == null) {
+                    continue;
+                }
+                int bound = Math.max(current, earliestFromPrerequisites(courseId));
+                if (bound > current) {
+                    earliest.put(courseId, bound);
+                    changed = true;
+                }
+            }
+            for (int i = order.size() - 1; i >= 0; i--) {
+                String courseId = order.get(i);
+                Integer current = latest.get(courseId);
+                if (current == null) {
+                    continue;
+                }
+                int bound = current;
+                for (Map.Entry<String, Integer> successor : requiredSuccessors
+                        .getOrDefault(courseId, Collections.emptyMap()).entrySet()) {
+                    bound = Math.min(bound, latest.get(successor.getKey()) - successor.getValue());
+                }
+                if (bound < current) {
+                    latest.put(courseId, bound);
+                    changed = true;
+                }
+            }
+            for (String courseId : order) {
+                if (earliest.containsKey(courseId) && earliest.get(courseId) > latest.get(courseId)) {
+                    fail(describeEmptyWindow(courseId));
+                    break;
+                }
+            }
+        }
+    }
+
+    private int earliestFromPrerequisites(String courseId) {
+        int bound = 0;
+        Course course = graph.getCoursesMap().get(courseId);
+        for (List<String> orGroup : course.getPrerequisites()) {
+            int groupBound = Integer.MAX_VALUE;
+            for (String prereq : orGroup) {
+                if (completed.contains(prereq)) {
+                    groupBound = 0;
+                    break;
+                }
+                Integer prereqEarliest = earliest.get(prereq);
+                if (prereqEarliest != null) {
+                    int gap = graph.areCorequisites(prereq, courseId) ? 0 : 1;
+                    groupBound = Math.min(groupBound, prereqEarliest + gap);
+                }
+            }
+            if (groupBound != Integer.MAX_VALUE) {
+                bound = Math.max(bound, groupBound);
+            }
+        }
+        // Graph-only rules such as CIS 1100 before CIS 1200 and Senior Project I before II
+        for (Map.Entry<String, Integer> rule : rulePredecessors.getOrDefault(courseId, Collections.emptyMap())
+                .entrySet()) {
+            bound = Math.max(bound, earliest.get(rule.getKey()) + rule.getValue());
+        }
+        return bound;
+    }
+
+    private static boolean isPrerequisiteOf(String prereq, Course course) {
+        for (List<String> orGroup : course.getPrerequisites()) {
+            if (orGroup.contains(prereq)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String describeEmptyWindow(String courseId) {
+        int needed = earliest.get(courseId) + 1;
+        if (needed > totalSemesters) {
+            return courseId + " needs at least " + needed + " semesters of prerequisites but only "
+                    + totalSemesters + " are available";
+        }
+        if (latest.get(courseId) < 0) {
+            return courseId + " would have to be taken before the first semester to leave room for the courses"
+                    + " that depend on it";
+        }
+        return courseId + " cannot start before semester " + needed + " but must start by semester "
+                + (latest.get(courseId) + 1);
+    }
+
+    /**
+     * Checks whether the windows leave room for every course at the given
+     * per-semester cap. Returns null when no capacity problem is found,
+     * otherwise a description of the first one.
+     */
+    public String checkCapacity(int maxCoursesPerSemester) {
+        if (infeasibilityReason != null) {
+            return infeasibilityReason;
+        }
+        for (int k = 0; k < totalSemesters; k++) {
+            if (pinnedPerSemester[k] > maxCoursesPerSemester) {
+                return pinnedPerSemester[k] + " courses are pinned to semester " + (k + 1) + " but only "
+                        + maxCoursesPerSemester + " fit per semester";
+            }
+        }
+        int[] dueBy = new int[totalSemesters]; // Courses whose window ends at each semester
+        int[] startingFrom = new int[totalSemesters]; // Courses whose window starts at each semester
+        for (String courseId : earliest.keySet()) {
+            dueBy[latest.get(courseId)]++;
+            startingFrom[earliest.get(courseId)]++;
+        }
+
+        int total = earliest.size();
+        if (total > totalSemesters * maxCoursesPerSemester) {
+            return total + " courses remain but " + totalSemesters + " semesters at " + maxCoursesPerSemester
+                    + " per semester only fit " + totalSemesters * maxCoursesPerSemester;
+        }
+        int due = 0;
+        for (int k = 0; k < totalSemesters; k++) {
+            due += dueBy[k];
+            if (due > (k + 1) * maxCoursesPerSemester) {
+                return due + " courses must be finished within the first " + (k + 1) + " semesters, which only fit "
+                        + (k + 1) * maxCoursesPerSemester;
+            }
+        }
+        int late = 0;
+        for (int k = totalSemesters - 1; k >= 0; k--) {
+            late += startingFrom[k];
+            if (late > (totalSemesters - k) * maxCoursesPerSemester) {
+                return late + " courses cannot start before semester " + (k + 1) + " and the remaining "
+                        + (totalSemesters - k) + " semesters only fit " + (totalSemesters - k) * maxCoursesPerSemester;
+            }
+        }
+        return null;
+    }
+
+    private void fail(String reason) {
+        if (infeasibilityReason == null) {
+            infeasibilityReason = reason;
+        }
+    }
+
+    // False if some course has no semester left that satisfies its constraints
+    public boolean isFeasible() {
+        return infeasibilityReason == null;
+    }
+
+    public String getInfeasibilityReason() {
+        return infeasibilityReason;
+    }
+
+    public int getTotalSemesters() {
+        return totalSemesters;
+    }
+
+    // True if the course still has to be scheduled (known and not completed)
+    public boolean contains(String courseId) {
+        return earliest.containsKey(courseId);
+    }
+
+    // Earliest 0-based semester the course can be taken in, or -1 if it is completed or unknown
+    public int getEarliest(String courseId) {
+        return earliest.getOrDefault(courseId, -1);
+    }
+
+    // Latest 0-based semester the course can be taken in, or -1 if it is completed or unknown
+    public int getLatest(String courseId) {
+        return latest.getOrDefault(courseId, -1);
+    }
+
+    // Number of semesters the course can slip without breaking the deadline
+    public int getSlack(String courseId) {
+        return contains(courseId) ? latest.get(courseId) - earliest.get(courseId) : -1;
+    }
+
+    // True if a course can be placed in the given semester without leaving its window
+    public boolean allows(String courseId, int semesterIndex) {
+        return contains(courseId) && semesterIndex >= earliest.get(courseId) && semesterIndex <= latest.get(courseId);
+    }
+}
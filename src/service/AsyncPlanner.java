@@ -0,0 +1,231 @@
+package service;
+
+import model.Course;
+import model.CourseDataLoader;
+import model.CourseDataLoader.CourseListing;
+import model.DegreePlan;
+import scheduler.PrereqGraph;
+import scheduler.Scheduler;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Non-blocking facade over {@link CourseDataLoader} and {@link Scheduler}.
+ *
+ * Every method returns immediately with a {@link CompletableFuture}. Loading a
+ * major runs as a pipeline: fetch the program page, parse its course rows,
+ * fetch every course page concurrently, parse prerequisites, then build the
+ * graph and plan. Page downloads run on the I/O executor and everything else
+ * on the CPU executor, so callers can have many majors and students in flight
+ * without a thread each.
+ *
+ * Cancelling a returned future, or letting it time out through
+ * {@link CompletableFuture#orTimeout}, skips the page downloads it queued that
+ * have not started yet. Downloads already running are not interrupted; they
+ * finish and their pages are dropped. Futures passed in by the caller, eg to
+ * {@link #buildGraph}, are never cancelled since other code may depend on them;
+ * only stages this planner created for that one request are. Failures surface
+ * as the original exception, eg {@link IOException} for an unreachable catalog
+ * or {@link IllegalArgumentException} for an unknown major.
+ */
+public class AsyncPlanner {
+    private final Executor ioExecutor;
+    private final Executor cpuExecutor;
+    private final ExecutorService ownedIoExecutor; // Only set when we created the I/O pool
+
+    /**
+     * @param ioExecutor  Runs page downloads, which mostly wait on the network.
+     * @param cpuExecutor Runs HTML parsing, graph building and planning.
+     */
+    public AsyncPlanner(Executor ioExecutor, Executor cpuExecutor) {
+        this.ioExecutor = Objects.requireNonNull(ioExecutor, "I/O executor cannot be null");
+        this.cpuExecutor = Objects.requireNonNull(cpuExecutor, "CPU executor cannot be null");
+        this.ownedIoExecutor = null;
+    }
+
+    // Uses a fixed pool of the given size for downloads and the common pool for CPU work
+    public AsyncPlanner(int ioThreads) {
+        if (ioThreads <= 0) {
+            throw new IllegalArgumentException("I/O thread count must be positive.");
+        }
+        this.ownedIoExecutor = Executors.newFixedThreadPool(ioThreads, DaemonThreads.named("catalog-fetch"));
+        this.ioExecutor = ownedIoExecutor;
+        this.cpuExecutor = ForkJoinPool.commonPool();
+    }
+
+    public AsyncPlanner() {
+        this(16);
+    }
+
+    // Stops the I/O pool if this planner created it; caller supplied executors are left alone
+    public void shutdown() {
+        if (ownedIoExecutor != null) {
+            ownedIoExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads every course of a BSE major along with its prerequisites. The first
+     * course page that fails fails the whole load and cancels the rest.
+     */
+    public CompletableFuture<List<Course>> findCoursesAndPrereqsInMajor(String majorCode) {
+        String url = CourseDataLoader.programUrl(majorCode);
+        if (url == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Unsupported major '" + majorCode + "'"));
+        }
+
+        CompletableFuture<List<Course>> result = new CompletableFuture<>();
+        List<CompletableFuture<?>> inFlight = new CopyOnWriteArrayList<>();
+        // Once the caller stops waiting, mark the pending stages cancelled so queued downloads are skipped
+        result.whenComplete((courses, error) -> {
+            if (error != null) {
+                inFlight.forEach(stage -> stage.cancel(true));
+            }
+        });
+
+        CompletableFuture<String> programPage = fetch(url, result);
+        inFlight.add(programPage);
+        programPage.thenApplyAsync(html -> CourseDataLoader.parseProgramPage(html, url), cpuExecutor)
+                .thenCompose(listings -> {
+                    List<CompletableFuture<Course>> courses = new ArrayList<>(listings.size());
+                    for (CourseListing listing : listings) {
+                        CompletableFuture<Course> course = loadCourse(listing, result);
+                        inFlight.add(course);
+                        // Fail fast instead of waiting for every other page
+                        course.whenComplete((loaded, error) -> {
+                            if (error != null) {
+                                result.completeExceptionally(unwrap(error));
+                            }
+                        });
+                        courses.add(course);
+                    }
+                    return CompletableFuture.allOf(courses.toArray(new CompletableFuture<?>[0]))
+                            .thenApply(done -> {
+                                List<Course> loaded = new ArrayList<>(courses.size());
+                                for (CompletableFuture<Course> course : courses) {
+                                    loaded.add(course.join());
+                                }
+                                return loaded;
+                            });
+                })
+                .whenComplete((courses, error) -> complete(result, courses, error));
+        return result;
+    }
+
+    // Fetches and parses the prerequisites listed on a single course page
+    public CompletableFuture<List<List<String>>> findPrerequisites(String courseUrl) {
+        CompletableFuture<List<List<String>>> result = new CompletableFuture<>();
+        CompletableFuture<String> page = fetch(courseUrl, result);
+        cancelWith(result, page);
+        page.thenApplyAsync(html -> CourseDataLoader.parsePrerequisites(html, courseUrl), cpuExecutor)
+                .whenComplete((prerequisites, error) -> complete(result, prerequisites, error));
+        return result;
+    }
+
+    // Loads every course listed on a department's course page, eg CIS
+    public CompletableFuture<List<Course>> loadCoursesForDepartment(String departmentCode) {
+        String url = CourseDataLoader.departmentUrl(departmentCode);
+        CompletableFuture<List<Course>> result = new CompletableFuture<>();
+        CompletableFuture<String> page = fetch(url, result);
+        cancelWith(result, page);
+        page.thenApplyAsync(html -> CourseDataLoader.parseDepartmentPage(html, url), cpuExecutor)
+                .whenComplete((courses, error) -> complete(result, courses, error));
+        return result;
+    }
+
+    // Builds the prerequisite graph once the courses are available
+    public CompletableFuture<PrereqGraph> buildGraph(CompletableFuture<List<Course>> courses) {
+        return buildGraph(courses, false);
+    }
+
+    // ownsCourses is true only when this planner created the courses future for this graph alone
+    private CompletableFuture<PrereqGraph> buildGraph(CompletableFuture<List<Course>> courses,
+            boolean ownsCourses) {
+        CompletableFuture<PrereqGraph> result = new CompletableFuture<>();
+        if (ownsCourses) {
+            cancelWith(result, courses);
+        }
+        courses.thenApplyAsync(PrereqGraph::new, cpuExecutor)
+                .whenComplete((graph, error) -> complete(result, graph, error));
+        return result;
+    }
+
+    // The graph future may be shared by several plans, it is never cancelled from here
+    public CompletableFuture<DegreePlan> generateDegreePlan(CompletableFuture<PrereqGraph> graph,
+            int maxCoursesPerSemester, Set<String> alreadyCompleted) {
+        return generateDegreePlan(graph, false, maxCoursesPerSemester, alreadyCompleted);
+    }
+
+    private CompletableFuture<DegreePlan> generateDegreePlan(CompletableFuture<PrereqGraph> graph,
+            boolean ownsGraph, int maxCoursesPerSemester, Set<String> alreadyCompleted) {
+        Set<String> completed = Set.copyOf(alreadyCompleted);
+        CompletableFuture<DegreePlan> result = new CompletableFuture<>();
+        if (ownsGraph) {
+            cancelWith(result, graph);
+        }
+        graph.thenApplyAsync(g -> new Scheduler(g).generateDegreePlan(maxCoursesPerSemester, completed),
+                cpuExecutor).whenComplete((plan, error) -> complete(result, plan, error));
+        return result;
+    }
+
+    // Runs the whole pipeline for one student: load the major, build its graph and plan
+    public CompletableFuture<DegreePlan> generateDegreePlan(String majorCode, int maxCoursesPerSemester,
+            Set<String> alreadyCompleted) {
+        // Every stage here has this plan as its only dependent, so cancelling the plan cancels them all
+        return generateDegreePlan(buildGraph(findCoursesAndPrereqsInMajor(majorCode), true), true,
+                maxCoursesPerSemester, alreadyCompleted);
+    }
+
+    public CompletableFuture<DegreePlan> generateDegreePlan(String majorCode, int maxCoursesPerSemester) {
+        return generateDegreePlan(majorCode, maxCoursesPerSemester, Collections.emptySet());
+    }
+
+    // Downloads one course page and turns its listing into a Course
+    private CompletableFuture<Course> loadCourse(CourseListing listing, CompletableFuture<?> owner) {
+        return fetch(listing.getCourseUrl(), owner)
+                .thenApplyAsync(html -> listing.toCourse(
+                        CourseDataLoader.parsePrerequisites(html, listing.getCourseUrl())), cpuExecutor);
+    }
+
+    // Queues a page download, skipped if the owning request finished while it waited
+    private CompletableFuture<String> fetch(String url, CompletableFuture<?> owner) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (owner.isDone()) {
+                throw new CancellationException("Request finished before " + url + " was fetched");
+            }
+            try {
+                return CourseDataLoader.fetchPage(url);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ioExecutor);
+    }
+
+    // Cancels an upstream stage if the downstream result is cancelled, times out or fails.
+    // Only for upstream stages this planner created with the downstream result as their sole dependent
+    private static void cancelWith(CompletableFuture<?> downstream, CompletableFuture<?> upstream) {
+        downstream.whenComplete((value, error) -> {
+            if (error != null) {
+                upstream.cancel(true);
+            }
+        });
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, T value, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(unwrap(error));
+        } else {
+            result.complete(value);
+        }
+    }
+
+    // Strips the CompletionException wrapper so callers see the original failure
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
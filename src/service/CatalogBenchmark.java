@@ -0,0 +1,136 @@
+package service;
+
+import model.Course;
+import model.CourseDataLoader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * End-to-end benchmark against a local {@link MockCatalogServer}, so it runs
+ * offline and repeatably.
+ *
+ * For every supported major it measures a cold load through
+ * {@link CatalogManager} (scrape and graph build) and a warm load (served from
+ * the manager's cache), plus the number of catalog requests each takes. It then
+ * loads every major at once through {@link AsyncPlanner}, and finally drives
+ * /plan on a {@link PlannerServer} over the same warm manager with
+ * {@link LoadTestClient} to measure planning throughput under concurrency.
+ *
+ * Usage: CatalogBenchmark [concurrency] [planRequests] [latencyMillis]
+ * [errorRate] [recordingDir]
+ *
+ * Run it with -Dsun.net.httpserver.nodelay=true, otherwise every keep-alive
+ * response from the JDK HTTP server waits about 40 ms on Nagle's algorithm.
+ */
+public class CatalogBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int planRequests = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        double errorRate = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+        Path recordingDir = args.length > 4 ? Paths.get(args[4]) : null;
+
+        if (!Boolean.getBoolean("sun.net.httpserver.nodelay")) {
+            System.err.println("Warning: Running without -Dsun.net.httpserver.nodelay=true, "
+                    + "HTTP timings will include Nagle delays.");
+        }
+        MockCatalogServer mock = new MockCatalogServer(0, recordingDir, latencyMillis, errorRate);
+        mock.start();
+        String previousBaseUrl = CourseDataLoader.getBaseUrl();
+        CourseDataLoader.setBaseUrl(mock.getBaseUrl());
+        System.out.println("Mock catalog at " + mock.getBaseUrl() + " (latency " + latencyMillis
+                + " ms, error rate " + errorRate + ")");
+
+        CatalogManager catalogManager = new CatalogManager(Collections.emptyList(), 2, 0);
+        try {
+            measureMajorLoads(mock, catalogManager);
+            measureAsyncLoad(mock);
+            measurePlanning(catalogManager, concurrency, planRequests);
+        } finally {
+            catalogManager.shutdown();
+            CourseDataLoader.setBaseUrl(previousBaseUrl);
+            mock.stop();
+        }
+    }
+
+    // Cold (scrape and build) and warm (cached) load of each major through the catalog manager
+    private static void measureMajorLoads(MockCatalogServer mock, CatalogManager catalogManager) {
+        System.out.println();
+        System.out.println(String.format("%-6s %8s %9s %10s %10s %10s", "Major", "Courses", "Requests", "Cold ms",
+                "Warm ms", "Warm reqs"));
+        for (String major : catalogManager.getSupportedMajors()) {
+            try {
+                mock.resetCounts();
+                long start = System.nanoTime();
+                MajorCatalog catalog = catalogManager.getCatalog(major);
+                double coldMillis = (System.nanoTime() - start) / 1e6;
+                long requests = mock.getRequestCount();
+
+                mock.resetCounts();
+                start = System.nanoTime();
+                catalogManager.getCatalog(major);
+                double warmMillis = (System.nanoTime() - start) / 1e6;
+
+                System.out.println(String.format("%-6s %8d %9d %10.1f %10.3f %10d", major,
+                        catalog.getCourses().size(), requests, coldMillis, warmMillis, mock.getRequestCount()));
+            } catch (IOException | RuntimeException e) {
+                System.out.println(String.format("%-6s failed: %s", major, e.getMessage()));
+            }
+        }
+    }
+
+    // Every major at once through the async pipeline
+    private static void measureAsyncLoad(MockCatalogServer mock) {
+        AsyncPlanner planner = new AsyncPlanner();
+        try {
+            mock.resetCounts();
+            long start = System.nanoTime();
+            List<CompletableFuture<List<Course>>> loads = new ArrayList<>();
+            for (String major : CourseDataLoader.getSupportedMajors()) {
+                loads.add(planner.findCoursesAndPrereqsInMajor(major));
+            }
+            int loaded = 0;
+            int failed = 0;
+            for (CompletableFuture<List<Course>> load : loads) {
+                try {
+                    load.join();
+                    loaded++;
+                } catch (CompletionException e) {
+                    failed++;
+                }
+            }
+            double elapsedMillis = (System.nanoTime() - start) / 1e6;
+            System.out.println();
+            System.out.println(String.format("Async load of %d majors: %.1f ms, %d requests, %d failed", loaded,
+                    elapsedMillis, mock.getRequestCount(), failed));
+        } finally {
+            planner.shutdown();
+        }
+    }
+
+    // Planning throughput of the HTTP service once its catalogs are warm
+    private static void measurePlanning(CatalogManager catalogManager, int concurrency, int planRequests)
+            throws IOException, InterruptedException {
+        PlannerServer plannerServer = new PlannerServer(0, catalogManager);
+        plannerServer.start();
+        try {
+            for (String major : Arrays.asList("CSCI", "NETS")) {
+                URI target = URI.create("http://localhost:" + plannerServer.getPort() + "/plan?major=" + major
+                        + "&maxPerSemester=5");
+                // The catalog is already cached, this warms up the server before measuring
+                new LoadTestClient(target, 1, 1).run();
+                System.out.println();
+                System.out.println("Planning " + major + " with " + concurrency + " concurrent clients:");
+                new LoadTestClient(target, concurrency, planRequests).run().printSummary();
+            }
+        } finally {
+            plannerServer.stop();
+        }
+    }
+}
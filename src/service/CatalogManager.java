@@ -0,0 +1,230 @@
+package service;
+
+import model.Course;
+import model.CourseDataLoader;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a warm, periodically refreshed {@link MajorCatalog} for every supported
+ * BSE major.
+ *
+ * On {@link #start()} every major is queued for loading in the background,
+ * highest priority majors first. A request for a major that isn't loaded yet
+ * jumps the queue and waits only for that one major. Refreshes build a
+ * complete new catalog off to the side and then replace the old one with a
+ * single map write, so readers never block on a load and never observe a
+ * half-built catalog.
+ */
+public class CatalogManager {
+    // Lower values run first
+    private static final int PRIORITY_ON_DEMAND = 0;
+    private static final int PRIORITY_PRELOAD = 1;
+    private static final int PRIORITY_REFRESH = 2;
+
+    private final List<String> majorsInPriorityOrder;
+    private final Map<String, MajorCatalog> catalogs = new ConcurrentHashMap<>();
+    private final Map<String, PendingLoad> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor loaderPool;
+    private final ScheduledExecutorService refreshTimer;
+    private final AtomicLong taskSequence = new AtomicLong();
+    private final long refreshIntervalMillis;
+
+    /**
+     * @param priorityMajors        Majors to load before all others, most important
+     *                              first. Remaining supported majors follow in
+     *                              catalog order.
+     * @param loaderThreads         Number of majors scraped concurrently.
+     * @param refreshIntervalMillis How often every loaded major is scraped again,
+     *                              or 0 to never refresh.
+     */
+    public CatalogManager(List<String> priorityMajors, int loaderThreads, long refreshIntervalMillis) {
+        if (loaderThreads <= 0) {
+            throw new IllegalArgumentException("Loader thread count must be positive.");
+        }
+        if (refreshIntervalMillis < 0) {
+            throw new IllegalArgumentException("Refresh interval cannot be negative.");
+        }
+        LinkedHashSet<String> ordered = new LinkedHashSet<>();
+        for (String major : priorityMajors) {
+            ordered.add(major.trim().toUpperCase());
+        }
+        ordered.addAll(CourseDataLoader.getSupportedMajors());
+        ordered.retainAll(CourseDataLoader.getSupportedMajors());
+        this.majorsInPriorityOrder = List.copyOf(ordered);
+        this.refreshIntervalMillis = refreshIntervalMillis;
+
+        // execute() keeps LoadTask as the queued element so the priority queue can order it
+        this.loaderPool = new ThreadPoolExecutor(loaderThreads, loaderThreads, 60, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), DaemonThreads.named("catalog-loader"));
+        this.refreshTimer = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("catalog-refresh"));
+    }
+
+    public CatalogManager() {
+        this(Collections.emptyList(), 2, TimeUnit.HOURS.toMillis(24));
+    }
+
+    // Queues every major for background loading and schedules periodic refreshes
+    public void start() {
+        for (String major : majorsInPriorityOrder) {
+            load(major, PRIORITY_PRELOAD);
+        }
+        if (refreshIntervalMillis > 0) {
+            refreshTimer.scheduleAtFixedRate(this::refreshAll, refreshIntervalMillis, refreshIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Stops loading; callers waiting on a load that never started get an IllegalStateException
+    public void shutdown() {
+        refreshTimer.shutdownNow();
+        for (Runnable queued : loaderPool.shutdownNow()) {
+            ((LoadTask) queued).abandon(new IllegalStateException("Catalog manager was shut down"));
+        }
+    }
+
+    /**
+     * Returns the current catalog for a major without blocking, or null if the
+     * major hasn't been loaded yet.
+     */
+    public MajorCatalog getLoadedCatalog(String majorCode) {
+        return catalogs.get(majorCode.trim().toUpperCase());
+    }
+
+    /**
+     * Returns the current catalog for a major. If it isn't loaded yet the load is
+     * moved to the front of the queue and the caller waits for it.
+     *
+     * @throws NoSuchElementException if the major code is not supported.
+     * @throws IOException            if the catalog website could not be read.
+     */
+    public MajorCatalog getCatalog(String majorCode) throws IOException {
+        String key = majorCode.trim().toUpperCase();
+        MajorCatalog loaded = catalogs.get(key);
+        if (loaded != null) {
+            return loaded;
+        }
+        if (!majorsInPriorityOrder.contains(key)) {
+            throw new NoSuchElementException("Unsupported major '" + key + "'");
+        }
+
+        try {
+            return load(key, PRIORITY_ON_DEMAND).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    // Loaded major codes in priority order
+    public List<String> getLoadedMajors() {
+        List<String> loaded = new ArrayList<>();
+        for (String major : majorsInPriorityOrder) {
+            if (catalogs.containsKey(major)) {
+                loaded.add(major);
+            }
+        }
+        return loaded;
+    }
+
+    public List<String> getSupportedMajors() {
+        return majorsInPriorityOrder;
+    }
+
+    // Queues a refresh of every supported major behind any outstanding loads
+    public void refreshAll() {
+        for (String major : majorsInPriorityOrder) {
+            load(major, PRIORITY_REFRESH);
+        }
+    }
+
+    // Starts (or joins) a load for a major, promoting it if it is already queued
+    private CompletableFuture<MajorCatalog> load(String major, int priority) {
+        PendingLoad created = new PendingLoad();
+        PendingLoad existing = inFlight.putIfAbsent(major, created);
+        if (existing != null) {
+            if (priority < PRIORITY_PRELOAD) {
+                // A user is waiting, queue a duplicate task at the front; whichever starts first does the work
+                submit(new LoadTask(major, priority, taskSequence.getAndIncrement(), existing));
+            }
+            return existing.result;
+        }
+        submit(new LoadTask(major, priority, taskSequence.getAndIncrement(), created));
+        return created.result;
+    }
+
+    private void submit(LoadTask task) {
+        try {
+            loaderPool.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.abandon(new IllegalStateException("Catalog manager was shut down", e));
+        }
+    }
+
+    // One outstanding load of a major, possibly queued more than once at different priorities
+    private static class PendingLoad {
+        private final CompletableFuture<MajorCatalog> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+    }
+
+    private class LoadTask implements Runnable, Comparable<LoadTask> {
+        private final String major;
+        private final int priority;
+        private final long sequence; // Keeps FIFO order within a priority
+        private final PendingLoad pending;
+
+        LoadTask(String major, int priority, long sequence, PendingLoad pending) {
+            this.major = major;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.pending = pending;
+        }
+
+        @Override
+        public void run() {
+            if (!pending.claimed.compareAndSet(false, true)) {
+                return; // The other queued copy of this load already ran
+            }
+            try {
+                List<Course> courses = CourseDataLoader.findCoursesAndPrereqsInMajor(major);
+                if (courses.isEmpty()) {
+                    throw new IOException("No courses found for major '" + major + "'");
+                }
+                MajorCatalog fresh = new MajorCatalog(major, courses);
+                catalogs.put(major, fresh); // Single atomic swap, readers see old or new version
+                inFlight.remove(major, pending);
+                pending.result.complete(fresh);
+            } catch (IOException | RuntimeException e) {
+                // Keep serving the previous version if there is one
+                System.err.println("Warning: Could not load catalog for " + major + ": " + e.getMessage());
+                inFlight.remove(major, pending);
+                pending.result.completeExceptionally(e);
+            }
+        }
+
+        // Fails the load unless a copy of it already started, so no caller waits forever
+        void abandon(RuntimeException reason) {
+            if (pending.claimed.compareAndSet(false, true)) {
+                inFlight.remove(major, pending);
+                pending.result.completeExceptionally(reason);
+            }
+        }
+
+        @Override
+        public int compareTo(LoadTask other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
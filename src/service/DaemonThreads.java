@@ -0,0 +1,20 @@
+package service;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Thread factories for the service's background pools, which must not keep the JVM alive
+final class DaemonThreads {
+    private DaemonThreads() {
+    }
+
+    // Names threads namePrefix-1, namePrefix-2, ...
+    static ThreadFactory named(String namePrefix) {
+        AtomicLong count = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
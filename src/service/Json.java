@@ -0,0 +1,77 @@
+package service;
+
+import java.util.Collection;
+import java.util.List;
+
+// Minimal JSON writing helpers for the planning service responses
+final class Json {
+
+    private Json() {
+    }
+
+    // Appends a JSON string literal with the required escapes
+    static StringBuilder string(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"');
+    }
+
+    // Appends a JSON array of strings
+    static StringBuilder stringArray(StringBuilder out, Collection<String> values) {
+        out.append('[');
+        boolean first = true;
+        for (String value : values) {
+            if (!first) {
+                out.append(',');
+            }
+            string(out, value);
+            first = false;
+        }
+        return out.append(']');
+    }
+
+    // Appends a JSON array of string arrays, eg semesters or prerequisite groups
+    static StringBuilder nestedStringArray(StringBuilder out, List<List<String>> values) {
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            stringArray(out, values.get(i));
+        }
+        return out.append(']');
+    }
+
+    static String error(String message) {
+        StringBuilder out = new StringBuilder("{\"error\":");
+        return string(out, message).append('}').toString();
+    }
+}
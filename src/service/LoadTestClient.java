@@ -0,0 +1,139 @@
+package service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent load generator for {@link PlannerServer}. Sends a fixed number of
+ * GET requests from several worker threads and reports throughput and latency
+ * percentiles.
+ *
+ * Usage: LoadTestClient [url] [concurrency] [totalRequests]
+ */
+public class LoadTestClient {
+    private final HttpClient client;
+    private final URI target;
+    private final int concurrency;
+    private final int totalRequests;
+
+    public LoadTestClient(URI target, int concurrency, int totalRequests) {
+        if (concurrency <= 0 || totalRequests <= 0) {
+            throw new IllegalArgumentException("Concurrency and request count must be positive.");
+        }
+        this.target = target;
+        this.concurrency = concurrency;
+        this.totalRequests = totalRequests;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static class Result {
+        private final long[] latenciesNanos; // Sorted ascending
+        private final int errors;
+        private final long elapsedNanos;
+
+        Result(long[] latenciesNanos, int errors, long elapsedNanos) {
+            this.latenciesNanos = latenciesNanos;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getRequests() {
+            return latenciesNanos.length;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public double getThroughputPerSecond() {
+            return latenciesNanos.length / (elapsedNanos / 1e9);
+        }
+
+        // Nearest rank percentile in milliseconds
+        public double percentileMillis(double percentile) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * latenciesNanos.length);
+            int index = Math.min(latenciesNanos.length - 1, Math.max(0, rank - 1));
+            return latenciesNanos[index] / 1e6;
+        }
+
+        public void printSummary() {
+            System.out.println("Requests: " + getRequests() + " (" + errors + " errors)");
+            System.out.println(String.format("Elapsed: %.2f s", elapsedNanos / 1e9));
+            System.out.println(String.format("Throughput: %.1f req/s", getThroughputPerSecond()));
+            System.out.println(String.format("Latency p50: %.2f ms, p90: %.2f ms, p99: %.2f ms, max: %.2f ms",
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100)));
+        }
+    }
+
+    public Result run() throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(target).GET().build();
+        long[] latencies = new long[totalRequests];
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            futures.add(workers.submit(() -> {
+                int i;
+                while ((i = nextRequest.getAndIncrement()) < totalRequests) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                errors.incrementAndGet();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get(), elapsed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0]
+                : "http://localhost:" + PlannerServer.DEFAULT_PORT + "/plan?major=CSCI&maxPerSemester=5";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int totalRequests = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        LoadTestClient loadTest = new LoadTestClient(URI.create(url), concurrency, totalRequests);
+        // Single warm-up request so the first scrape isn't counted in the latencies
+        new LoadTestClient(URI.create(url), 1, 1).run();
+        loadTest.run().printSummary();
+    }
+}
@@ -0,0 +1,47 @@
+package service;
+
+import model.Course;
+import scheduler.PrereqGraph;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of one major's scraped courses together with the
+ * prerequisite graph built from them. Instances are shared between request
+ * threads, so nothing here may be mutated after construction.
+ */
+public class MajorCatalog {
+    private final String majorCode; // eg CSCI
+    private final List<Course> courses;
+    private final PrereqGraph graph;
+    private final long loadedAtMillis;
+
+    public MajorCatalog(String majorCode, List<Course> courses) {
+        this.majorCode = Objects.requireNonNull(majorCode, "Major code cannot be null").toUpperCase();
+        this.courses = Collections.unmodifiableList(List.copyOf(courses));
+        this.graph = new PrereqGraph(this.courses);
+        this.loadedAtMillis = System.currentTimeMillis();
+    }
+
+    public String getMajorCode() {
+        return majorCode;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public PrereqGraph getGraph() {
+        return graph;
+    }
+
+    public Map<String, Course> getCoursesMap() {
+        return graph.getCoursesMap();
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+}
@@ -0,0 +1,425 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.CourseDataLoader;
+import model.CourseDataLoader.CourseListing;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for catalog.upenn.edu so the loaders can be run and
+ * benchmarked offline. Point the loaders at it with
+ * {@link CourseDataLoader#setBaseUrl} or -Dcatalog.baseUrl.
+ *
+ * Pages are served from a recording directory when one is given:
+ * programs/{slug}.html, courses/{DEPT}_{NUMBER}.html and
+ * departments/{dept}.html. Any page missing from the recording is generated:
+ * every major gets a shared core of CIS/MATH/PHYS courses plus four levels of
+ * its own courses with AND and OR prerequisites, in the same HTML structure the
+ * real catalog uses. Latency and errors (503s) can be injected per request.
+ *
+ * No recording ships with the repository, so by default every page is
+ * generated. Generated pages match the catalog's markup, not its contents:
+ * each major's own courses use a made-up department code taken from its
+ * program slug (eg COMP for computer-science-bse), and every major has the
+ * same shape. Use {@link #record} against the real site for realistic data.
+ *
+ * Usage: MockCatalogServer [port] [latencyMillis] [errorRate] [recordingDir]
+ * or: MockCatalogServer record [recordingDir] [majors, eg CSCI,NETS]
+ */
+public class MockCatalogServer {
+    public static final int DEFAULT_PORT = 8081;
+
+    private static final String PROGRAMS_PREFIX = "/undergraduate/programs/";
+    private static final String COURSES_PREFIX = "/courses/";
+    private static final String SEARCH_PATH = "/search/";
+
+    // Generated majors get LEVELS x COURSES_PER_LEVEL courses of their own
+    private static final int LEVELS = 4;
+    private static final int COURSES_PER_LEVEL = 5;
+
+    // Core courses listed by every generated major, with their prerequisite text
+    private static final Map<String, String> CORE_COURSES = new LinkedHashMap<>();
+    private static final Map<String, String> CORE_PREREQUISITES = new HashMap<>();
+
+    static {
+        core("CIS 1100", "Introduction to Computer Programming", "");
+        core("CIS 1200", "Programming Languages and Techniques I", "Prerequisite: CIS 1100");
+        core("CIS 1600", "Mathematical Foundations of Computer Science", "");
+        core("CIS 1210", "Programming Languages and Techniques II", "Prerequisite: CIS 1200 AND CIS 1600");
+        core("MATH 1400", "Calculus, Part I", "");
+        core("MATH 1410", "Calculus, Part II", "Prerequisite: MATH 1400");
+        core("PHYS 0140", "Principles of Physics I", "Prerequisite: MATH 1400");
+        core("PHYS 0141", "Principles of Physics II", "Prerequisite: PHYS 0140 OR MATH 1410");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final Path recordingDir; // Null when every page is generated
+    private final long latencyMillis;
+    private final double errorRate;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong programRequests = new AtomicLong();
+    private final AtomicLong courseRequests = new AtomicLong();
+    private final AtomicLong departmentRequests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    /**
+     * @param port          Port to listen on, or 0 for any free port.
+     * @param recordingDir  Directory of recorded pages, or null to generate every
+     *                      page.
+     * @param latencyMillis Delay added before every response.
+     * @param errorRate     Fraction of requests, 0 to 1, answered with a 503.
+     */
+    public MockCatalogServer(int port, Path recordingDir, long latencyMillis, double errorRate) throws IOException {
+        if (latencyMillis < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative.");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1.");
+        }
+        this.recordingDir = recordingDir;
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.server = PlannerServer.createHttpServer(new InetSocketAddress("localhost", port));
+        this.requestExecutor = PlannerServer.newRequestExecutor();
+        server.setExecutor(requestExecutor);
+        server.createContext("/", this::handle);
+    }
+
+    public MockCatalogServer(int port) throws IOException {
+        this(port, null, 0, 0);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Base URL to hand to CourseDataLoader.setBaseUrl
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getProgramRequestCount() {
+        return programRequests.get();
+    }
+
+    public long getCourseRequestCount() {
+        return courseRequests.get();
+    }
+
+    public long getDepartmentRequestCount() {
+        return departmentRequests.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    public void resetCounts() {
+        requests.set(0);
+        programRequests.set(0);
+        courseRequests.set(0);
+        departmentRequests.set(0);
+        injectedErrors.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            respond(exchange, 503, "<html><body>Injected error</body></html>");
+            return;
+        }
+
+        // Some program paths in the loader end in "//"
+        String path = exchange.getRequestURI().getPath().replaceAll("/{2,}", "/");
+        String page;
+        if (path.startsWith(PROGRAMS_PREFIX)) {
+            programRequests.incrementAndGet();
+            String slug = trimSlashes(path.substring(PROGRAMS_PREFIX.length()));
+            page = recorded(Paths.get("programs", slug + ".html"));
+            if (page == null) {
+                page = programPage(slug);
+            }
+        } else if (path.equals(SEARCH_PATH)) {
+            courseRequests.incrementAndGet();
+            String courseId = searchTerm(exchange);
+            page = recorded(Paths.get("courses", courseId.replace(' ', '_') + ".html"));
+            if (page == null) {
+                page = coursePage(courseId);
+            }
+        } else if (path.startsWith(COURSES_PREFIX)) {
+            departmentRequests.incrementAndGet();
+            String department = trimSlashes(path.substring(COURSES_PREFIX.length())).toLowerCase();
+            page = recorded(Paths.get("departments", department + ".html"));
+            if (page == null) {
+                page = departmentPage(department.toUpperCase());
+            }
+        } else {
+            page = null;
+        }
+
+        if (page == null) {
+            respond(exchange, 404, "<html><body>Not found</body></html>");
+        } else {
+            respond(exchange, 200, page);
+        }
+    }
+
+    // Recorded copy of a page, or null if there is no recording of it
+    private String recorded(Path relative) throws IOException {
+        if (recordingDir == null) {
+            return null;
+        }
+        Path file = recordingDir.resolve(relative).normalize();
+        if (!file.startsWith(recordingDir.normalize()) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    // Generated program page: the shared core, the major's own courses and a senior design row
+    static String programPage(String slug) {
+        if (slug.isEmpty()) {
+            return null;
+        }
+        String department = departmentFor(slug);
+        StringBuilder html = new StringBuilder("<html><body><table class=\"sc_courselist\">");
+        int row = 0;
+        for (Map.Entry<String, String> core : CORE_COURSES.entrySet()) {
+            courseRow(html, row++, core.getKey(), core.getValue());
+        }
+        for (int level = 1; level <= LEVELS; level++) {
+            for (int k = 0; k < COURSES_PER_LEVEL; k++) {
+                String courseId = department + " " + courseNumber(level, k);
+                courseRow(html, row++, courseId, generatedName(courseId));
+            }
+        }
+        courseRow(html, row, department + " 4990", "Senior Design Project I");
+        return html.append("</table></body></html>").toString();
+    }
+
+    // Generated course page, prerequisites come from the course ID alone so every major agrees
+    static String coursePage(String courseId) {
+        StringBuilder html = new StringBuilder("<html><body><div class=\"courseblock\">");
+        courseBlock(html, courseId);
+        return html.append("</div></body></html>").toString();
+    }
+
+    static String departmentPage(String department) {
+        StringBuilder html = new StringBuilder("<html><body><div class=\"sc_sccoursedescs\">");
+        for (int level = 1; level <= LEVELS; level++) {
+            for (int k = 0; k < COURSES_PER_LEVEL; k++) {
+                html.append("<div class=\"courseblock\">");
+                courseBlock(html, department + " " + courseNumber(level, k));
+                html.append("</div>");
+            }
+        }
+        return html.append("</div></body></html>").toString();
+    }
+
+    private static void courseRow(StringBuilder html, int row, String courseId, String name) {
+        String href = SEARCH_PATH + "?P=" + courseId.replace(" ", "%20");
+        html.append("<tr class=\"").append(row % 2 == 0 ? "even" : "odd").append("\">")
+                .append("<td class=\"codecol\"><a href=\"").append(href).append("\" title=\"")
+                .append(courseId).append("\">").append(courseId.replace(" ", "&nbsp;")).append("</a></td>")
+                .append("<td class=\"titlecol\">").append(name).append("</td>")
+                .append("<td class=\"hourscol\">1</td></tr>");
+    }
+
+    private static void courseBlock(StringBuilder html, String courseId) {
+        String name = CORE_COURSES.getOrDefault(courseId, generatedName(courseId));
+        html.append("<p class=\"courseblocktitle\">").append(courseId).append(". ").append(name).append(".</p>");
+        String prerequisites = prerequisiteText(courseId);
+        if (!prerequisites.isEmpty()) {
+            html.append("<p class=\"courseblockextra\">").append(prerequisites).append("</p>");
+        }
+    }
+
+    // Level 1 courses mostly stand alone, later levels build on the level below
+    private static String prerequisiteText(String courseId) {
+        String core = CORE_PREREQUISITES.get(courseId);
+        if (core != null) {
+            return core;
+        }
+        int space = courseId.indexOf(' ');
+        int number;
+        try {
+            number = Integer.parseInt(courseId.substring(space + 1));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return "";
+        }
+        String department = courseId.substring(0, space);
+        int level = number / 1000;
+        int k = (number % 1000) / 10;
+        if (level <= 1 || level > LEVELS || k >= COURSES_PER_LEVEL) {
+            return level == 1 && k % 2 == 1 ? "Prerequisite: MATH 1400" : "";
+        }
+        String sameTrack = department + " " + courseNumber(level - 1, k);
+        if (k == 0) {
+            return "Prerequisite: " + sameTrack;
+        }
+        String neighbour = department + " " + courseNumber(level - 1, k - 1);
+        String joiner = k == COURSES_PER_LEVEL - 1 ? " OR " : " AND ";
+        return "Prerequisite: " + sameTrack + joiner + neighbour;
+    }
+
+    private static int courseNumber(int level, int k) {
+        return level * 1000 + k * 10;
+    }
+
+    private static String generatedName(String courseId) {
+        return "Topics in " + courseId;
+    }
+
+    // Four letter department code for a program slug, eg networked-social-systems-engineering-bse is NETW
+    private static String departmentFor(String slug) {
+        StringBuilder letters = new StringBuilder();
+        for (int i = 0; i < slug.length() && letters.length() < 4; i++) {
+            char c = slug.charAt(i);
+            if (Character.isLetter(c)) {
+                letters.append(Character.toUpperCase(c));
+            }
+        }
+        while (letters.length() < 3) {
+            letters.append('X');
+        }
+        return letters.toString();
+    }
+
+    private static String searchTerm(HttpExchange exchange) {
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                if (pair.startsWith("P=")) {
+                    return URLDecoder.decode(pair.substring(2), StandardCharsets.UTF_8).trim();
+                }
+            }
+        }
+        return "";
+    }
+
+    private static String trimSlashes(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void core(String courseId, String name, String prerequisites) {
+        CORE_COURSES.put(courseId, name);
+        CORE_PREREQUISITES.put(courseId, prerequisites);
+    }
+
+    /**
+     * Saves the program page, every course page and the department page of
+     * every listed course's department for each major, from the current base
+     * URL into a recording directory this server can replay.
+     */
+    public static void record(Path dir, List<String> majors) throws IOException {
+        Files.createDirectories(dir.resolve("programs"));
+        Files.createDirectories(dir.resolve("courses"));
+        Files.createDirectories(dir.resolve("departments"));
+        for (String major : majors) {
+            String url = CourseDataLoader.programUrl(major);
+            if (url == null) {
+                System.err.println("Warning: Skipping unsupported major " + major);
+                continue;
+            }
+            String slug = trimSlashes(url.substring(url.indexOf(PROGRAMS_PREFIX) + PROGRAMS_PREFIX.length()));
+            String html = CourseDataLoader.fetchPage(url);
+            write(dir.resolve("programs").resolve(slug + ".html"), html);
+
+            List<CourseListing> listings = CourseDataLoader.parseProgramPage(html, url);
+            Set<String> departments = new TreeSet<>();
+            for (CourseListing listing : listings) {
+                Path coursePage = dir.resolve("courses").resolve(listing.getCourseId().replace(' ', '_') + ".html");
+                if (!Files.exists(coursePage)) {
+                    write(coursePage, CourseDataLoader.fetchPage(listing.getCourseUrl()));
+                }
+                int space = listing.getCourseId().indexOf(' ');
+                if (space > 0) {
+                    departments.add(listing.getCourseId().substring(0, space).toLowerCase());
+                }
+            }
+            for (String department : departments) {
+                Path departmentPage = dir.resolve("departments").resolve(department + ".html");
+                if (!Files.exists(departmentPage)) {
+                    write(departmentPage, CourseDataLoader.fetchPage(CourseDataLoader.departmentUrl(department)));
+                }
+            }
+            System.out.println("Recorded " + major + " (" + listings.size() + " courses)");
+        }
+    }
+
+    private static void write(Path file, String html) throws IOException {
+        Files.write(file, html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("record")) {
+            Path dir = Paths.get(args.length > 1 ? args[1] : "catalog-recording");
+            List<String> majors = args.length > 2 ? Arrays.asList(args[2].split(","))
+                    : CourseDataLoader.getSupportedMajors();
+            record(dir, majors);
+            return;
+        }
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        double errorRate = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        Path recordingDir = args.length > 3 ? Paths.get(args[3]) : null;
+
+        MockCatalogServer mock = new MockCatalogServer(port, recordingDir, latencyMillis, errorRate);
+        mock.start();
+        System.out.println("Mock catalog listening on " + mock.getBaseUrl()
+                + " (run the planner with -Dcatalog.baseUrl=" + mock.getBaseUrl() + ")");
+    }
+}
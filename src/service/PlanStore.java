@@ -0,0 +1,793 @@
+package service;
+
+import model.CourseIds;
+import model.DegreePlan;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only store of generated plans, keyed by student ID and
+ * major.
+ *
+ * Plans are appended to a memory-mapped log file. Every record carries its
+ * length and a CRC32 of its contents. Course IDs are stored in their packed
+ * {@link CourseIds} form, and IDs that have no packed form are stored as text.
+ * An in-memory index maps each student and major to the offset of their
+ * latest record, so a lookup decodes a single record straight from the
+ * mapping.
+ *
+ * Writes go through a single writer thread that appends everything queued so
+ * far and then flushes the mapping once for the whole batch (group commit).
+ * The future returned by {@link #put} completes only after its record is on
+ * disk. When the store is opened the log is replayed to rebuild the index.
+ * A torn record with nothing valid after it is left over from a crash
+ * mid-batch and was never acknowledged, so that tail is discarded. A corrupt
+ * record with valid records after it is skipped with a warning and the rest of
+ * the log is kept.
+ *
+ * Saving a new plan for the same student and major supersedes the old record,
+ * and {@link #compact()} rewrites the log with only the latest records. It
+ * can also run periodically once enough of the log is superseded. The log is
+ * limited to 2 GB, the size of a single mapping.
+ */
+public class PlanStore implements Closeable {
+    private static final int MAGIC = 0x504C4E53; // "PLNS"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8; // Magic and version
+    private static final int RECORD_HEADER_BYTES = 8; // Payload length and CRC32
+
+    private static final byte TYPE_PLAN = 1;
+    private static final byte TYPE_DELETE = 2;
+    // Queue-only requests handled by the writer thread, never written to the log
+    private static final byte TYPE_COMPACT = 3;
+    private static final byte TYPE_STOP = 4;
+
+    // Written in place of a packed ID when the ID is stored as text
+    private static final long TEXT_ID_MARKER = -1L;
+
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    private static final int MAX_BATCH = 1024;
+    private static final int MAX_TEXT_BYTES = 0xFFFF;
+    private static final long MIN_COMPACTION_GARBAGE_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final ScheduledExecutorService compactionTimer; // Null when compaction is manual only
+    private final double compactionGarbageRatio;
+
+    private volatile Segment segment;
+    private volatile boolean closed;
+
+    /**
+     * Opens (or creates) a plan store, replaying the log to rebuild the index.
+     *
+     * @param compactionIntervalMillis How often to check whether the log needs
+     *                                 compacting, or 0 for manual compaction only.
+     * @param compactionGarbageRatio   Fraction of the log, 0 to 1, that must be
+     *                                 superseded records before a periodic
+     *                                 compaction runs.
+     */
+    public PlanStore(Path file, long compactionIntervalMillis, double compactionGarbageRatio) throws IOException {
+        if (compactionIntervalMillis < 0) {
+            throw new IllegalArgumentException("Compaction interval cannot be negative.");
+        }
+        if (compactionGarbageRatio < 0 || compactionGarbageRatio > 1) {
+            throw new IllegalArgumentException("Compaction garbage ratio must be between 0 and 1.");
+        }
+        this.file = file;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        this.segment = recover(file);
+
+        this.writer = DaemonThreads.named("plan-store-writer").newThread(this::writeLoop);
+        writer.start();
+
+        if (compactionIntervalMillis > 0) {
+            this.compactionTimer = Executors.newSingleThreadScheduledExecutor(
+                    DaemonThreads.named("plan-store-compaction"));
+            compactionTimer.scheduleWithFixedDelay(this::compactIfWorthwhile, compactionIntervalMillis,
+                    compactionIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactionTimer = null;
+        }
+    }
+
+    public PlanStore(Path file) throws IOException {
+        this(file, TimeUnit.MINUTES.toMillis(10), 0.5);
+    }
+
+    // A plan read back from the store
+    public static class StoredPlan {
+        private final String studentId;
+        private final String major;
+        private final long savedAtMillis;
+        private final DegreePlan plan;
+
+        StoredPlan(String studentId, String major, long savedAtMillis, DegreePlan plan) {
+            this.studentId = studentId;
+            this.major = major;
+            this.savedAtMillis = savedAtMillis;
+            this.plan = plan;
+        }
+
+        public String getStudentId() {
+            return studentId;
+        }
+
+        public String getMajor() {
+            return major;
+        }
+
+        public long getSavedAtMillis() {
+            return savedAtMillis;
+        }
+
+        public DegreePlan getPlan() {
+            return plan;
+        }
+    }
+
+    /**
+     * Queues a plan to be saved as the latest plan for a student and major. The
+     * future completes once the record has been flushed to disk, and lookups see
+     * the plan from then on.
+     */
+    public CompletableFuture<Void> put(String studentId, String major, DegreePlan plan) {
+        Objects.requireNonNull(plan, "Plan cannot be null");
+        return submit(new Request(TYPE_PLAN, checkKey(studentId, "Student ID"), checkKey(major, "Major"), plan));
+    }
+
+    // Removes the plan saved for a student and major, if any
+    public CompletableFuture<Void> delete(String studentId, String major) {
+        return submit(new Request(TYPE_DELETE, checkKey(studentId, "Student ID"), checkKey(major, "Major"), null));
+    }
+
+    // Saves a plan and waits until it is durable
+    public void save(String studentId, String major, DegreePlan plan) throws IOException {
+        await(put(studentId, major, plan));
+    }
+
+    // Latest plan saved for a student and major, or null if there is none
+    public StoredPlan get(String studentId, String major) {
+        Segment current = segment;
+        Map<String, Integer> majors = current.index.get(studentId);
+        Integer offset = majors == null ? null : majors.get(major);
+        return offset == null ? null : decode(current.buffer, offset);
+    }
+
+    // Latest plan for each major a student has a plan for, ordered by major
+    public List<StoredPlan> getPlansForStudent(String studentId) {
+        Segment current = segment;
+        Map<String, Integer> majors = current.index.get(studentId);
+        if (majors == null) {
+            return Collections.emptyList();
+        }
+        List<StoredPlan> plans = new ArrayList<>();
+        for (Integer offset : new TreeMap<>(majors).values()) {
+            plans.add(decode(current.buffer, offset));
+        }
+        return plans;
+    }
+
+    // Number of student and major pairs with a saved plan
+    public int size() {
+        int count = 0;
+        for (Map<String, Integer> majors : segment.index.values()) {
+            count += majors.size();
+        }
+        return count;
+    }
+
+    // Bytes of log in use, including superseded records
+    public long getLogBytes() {
+        return segment.tail;
+    }
+
+    // Bytes of log holding the latest record of each plan
+    public long getLiveBytes() {
+        return FILE_HEADER_BYTES + segment.liveBytes;
+    }
+
+    /**
+     * Rewrites the log with only the latest record of each plan and swaps it in
+     * atomically. Runs on the writer thread, between batches.
+     */
+    public void compact() throws IOException {
+        await(submit(new Request(TYPE_COMPACT, null, null, null)));
+    }
+
+    // Flushes outstanding writes and stops the writer; later calls to put fail
+    @Override
+    public void close() throws IOException {
+        Request stop = new Request(TYPE_STOP, null, null, null);
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(stop); // Nothing can be queued behind this
+        }
+        if (compactionTimer != null) {
+            compactionTimer.shutdownNow();
+        }
+        await(stop.done);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.channel.close();
+    }
+
+    private CompletableFuture<Void> submit(Request request) {
+        synchronized (queue) {
+            if (closed) {
+                throw new IllegalStateException("Plan store is closed");
+            }
+            queue.add(request);
+        }
+        return request.done;
+    }
+
+    private void compactIfWorthwhile() {
+        Segment current = segment;
+        long garbage = current.tail - FILE_HEADER_BYTES - current.liveBytes;
+        long used = current.tail - FILE_HEADER_BYTES;
+        if (garbage >= MIN_COMPACTION_GARBAGE_BYTES && garbage >= used * compactionGarbageRatio) {
+            try {
+                submit(new Request(TYPE_COMPACT, null, null, null));
+            } catch (IllegalStateException e) {
+                // Closed while checking
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Request> batch = new ArrayList<>();
+        List<Request> appended = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            int batchStart = segment.tail;
+            for (Request request : batch) {
+                if (request.type == TYPE_PLAN || request.type == TYPE_DELETE) {
+                    try {
+                        append(request);
+                        appended.add(request);
+                    } catch (IOException | RuntimeException e) {
+                        request.done.completeExceptionally(e);
+                    }
+                    continue;
+                }
+
+                // Control requests see every write queued before them
+                commit(appended, batchStart);
+                batchStart = segment.tail;
+                if (request.type == TYPE_COMPACT) {
+                    try {
+                        compactNow();
+                        request.done.complete(null);
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("Warning: Plan store compaction failed: " + e.getMessage());
+                        request.done.completeExceptionally(e);
+                    }
+                    batchStart = segment.tail;
+                } else {
+                    running = false;
+                    request.done.complete(null);
+                }
+            }
+            commit(appended, batchStart);
+            batch.clear();
+        }
+    }
+
+    // One flush for every record appended since the last commit, then publish them
+    private void commit(List<Request> appended, int batchStart) {
+        if (appended.isEmpty()) {
+            return;
+        }
+        Segment current = segment;
+        try {
+            current.buffer.force();
+            if (current.directoryUnsynced) {
+                syncDirectory(file);
+                current.directoryUnsynced = false;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not acknowledged. Zero the records so they can't replay after a crash, the next batch reuses the space
+            zero(current.buffer, batchStart, current.tail);
+            current.tail = batchStart;
+            try {
+                current.buffer.force();
+            } catch (RuntimeException ignored) {
+                // The next successful batch flushes the zeros
+            }
+            for (Request request : appended) {
+                request.done.completeExceptionally(new IOException("Could not flush plan store", e));
+            }
+            appended.clear();
+            return;
+        }
+        for (Request request : appended) {
+            if (request.type == TYPE_PLAN) {
+                Integer previous = current.index.computeIfAbsent(request.studentId, id -> new ConcurrentHashMap<>())
+                        .put(request.major, request.offset);
+                current.liveBytes += request.recordBytes;
+                if (previous != null) {
+                    current.liveBytes -= recordBytes(current.buffer, previous);
+                }
+            } else {
+                Map<String, Integer> majors = current.index.get(request.studentId);
+                Integer previous = majors == null ? null : majors.remove(request.major);
+                if (previous != null) {
+                    current.liveBytes -= recordBytes(current.buffer, previous);
+                }
+            }
+            request.done.complete(null);
+        }
+        appended.clear();
+    }
+
+    // Encodes a record directly into the mapping at the current tail
+    private void append(Request request) throws IOException {
+        Segment current = segment;
+        byte[] studentBytes = request.studentId.getBytes(StandardCharsets.UTF_8);
+        byte[] majorBytes = request.major.getBytes(StandardCharsets.UTF_8);
+        int payloadBytes = 1 + 8 + 2 + studentBytes.length + 2 + majorBytes.length;
+
+        long[][] packedSemesters = null;
+        if (request.type == TYPE_PLAN) {
+            List<List<String>> semesters = request.plan.getSemesters();
+            checkCount(semesters.size(), "semesters");
+            packedSemesters = new long[semesters.size()][];
+            payloadBytes += 2;
+            for (int s = 0; s < semesters.size(); s++) {
+                List<String> courses = semesters.get(s);
+                checkCount(courses.size(), "courses in a semester");
+                long[] packed = new long[courses.size()];
+                payloadBytes += 2;
+                for (int c = 0; c < packed.length; c++) {
+                    // lookup never registers, so IDs outside the catalog don't grow CourseIds
+                    packed[c] = CourseIds.lookup(courses.get(c));
+                    payloadBytes += 8;
+                    if (!CourseIds.isStandard(packed[c])) {
+                        payloadBytes += 2 + textBytes(courses.get(c)).length;
+                    }
+                }
+                packedSemesters[s] = packed;
+            }
+        }
+
+        int start = current.tail;
+        ensureCapacity(current, (long) start + RECORD_HEADER_BYTES + payloadBytes);
+        ByteBuffer out = current.buffer.duplicate();
+        out.position(start + RECORD_HEADER_BYTES);
+        out.put(request.type);
+        out.putLong(System.currentTimeMillis());
+        putText(out, studentBytes);
+        putText(out, majorBytes);
+        if (packedSemesters != null) {
+            out.putShort((short) packedSemesters.length);
+            List<List<String>> semesters = request.plan.getSemesters();
+            for (int s = 0; s < packedSemesters.length; s++) {
+                long[] packed = packedSemesters[s];
+                out.putShort((short) packed.length);
+                for (int c = 0; c < packed.length; c++) {
+                    if (CourseIds.isStandard(packed[c])) {
+                        out.putLong(packed[c]);
+                    } else {
+                        out.putLong(TEXT_ID_MARKER);
+                        putText(out, textBytes(semesters.get(s).get(c)));
+                    }
+                }
+            }
+        }
+
+        out.putInt(start, payloadBytes);
+        out.putInt(start + 4, checksum(current.buffer, start + RECORD_HEADER_BYTES, payloadBytes));
+        request.offset = start;
+        request.recordBytes = RECORD_HEADER_BYTES + payloadBytes;
+        current.tail = start + RECORD_HEADER_BYTES + payloadBytes;
+    }
+
+    // Grows the mapping (and the file) by doubling until the record fits
+    private static void ensureCapacity(Segment segment, long required) throws IOException {
+        long capacity = segment.buffer.capacity();
+        if (required <= capacity) {
+            return;
+        }
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            if (required > Integer.MAX_VALUE) {
+                throw new IOException("Plan store is full, compact it or start a new file");
+            }
+            capacity = Integer.MAX_VALUE;
+        }
+        segment.buffer.force();
+        segment.buffer = segment.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void compactNow() throws IOException {
+        Segment old = segment;
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        Files.deleteIfExists(temp);
+
+        long needed = FILE_HEADER_BYTES + old.liveBytes;
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Segment fresh;
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(INITIAL_CAPACITY, needed));
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            fresh = new Segment(channel, buffer);
+
+            // Live records are copied byte for byte, they are already encoded and checksummed
+            for (Map.Entry<String, ConcurrentHashMap<String, Integer>> student : old.index.entrySet()) {
+                ConcurrentHashMap<String, Integer> majors = new ConcurrentHashMap<>();
+                for (Map.Entry<String, Integer> major : student.getValue().entrySet()) {
+                    int offset = major.getValue();
+                    int length = recordBytes(old.buffer, offset);
+                    ByteBuffer source = old.buffer.duplicate();
+                    source.position(offset).limit(offset + length);
+                    ByteBuffer target = buffer.duplicate();
+                    target.position(fresh.tail);
+                    target.put(source);
+                    majors.put(major.getKey(), fresh.tail);
+                    fresh.tail += length;
+                    fresh.liveBytes += length;
+                }
+                if (!majors.isEmpty()) {
+                    fresh.index.put(student.getKey(), majors);
+                }
+            }
+            buffer.force();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The rename is only durable once the directory is flushed. If that fails here, the next
+        // commit retries it before acknowledging anything written to the new file
+        fresh.directoryUnsynced = true;
+        try {
+            syncDirectory(file);
+            fresh.directoryUnsynced = false;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not flush directory of " + file + " after compaction: "
+                    + e.getMessage());
+        }
+        segment = fresh; // Readers holding the old segment keep reading its mapping
+        old.channel.close();
+    }
+
+    // Flushes a file's directory entry, eg after a rename. Windows can't open directories and
+    // makes renames durable itself, so there it is a no-op
+    private static void syncDirectory(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null || File.separatorChar == '\\') {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    // Maps the log and replays it. Corrupt records are skipped, a torn tail is discarded
+    private static Segment recover(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Plan store " + file + " is larger than 2 GB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(INITIAL_CAPACITY, size));
+            if (size < FILE_HEADER_BYTES) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a plan store");
+            }
+
+            Segment segment = new Segment(channel, buffer);
+            int offset = FILE_HEADER_BYTES;
+            int limit = buffer.capacity();
+            while (offset + RECORD_HEADER_BYTES <= limit) {
+                if (isValidRecord(buffer, offset, limit)) {
+                    replay(segment, buffer, offset);
+                    offset += recordBytes(buffer, offset);
+                    continue;
+                }
+                // Only a torn tail has no valid record after it. Acknowledged records after a corrupt one are kept
+                int next = findNextRecord(buffer, offset + 1, limit);
+                if (next == -1) {
+                    break;
+                }
+                System.err.println("Warning: Skipping corrupt plan store bytes " + offset + " to " + next + " of "
+                        + file);
+                offset = next;
+            }
+            segment.tail = offset;
+
+            // The file is preallocated, so a clean log ends in zeros. Anything else is a torn batch
+            if (offset + 4 <= limit && buffer.getInt(offset) != 0) {
+                System.err.println("Warning: Discarding incomplete plan store records after byte " + offset
+                        + " of " + file);
+                zero(buffer, offset, limit);
+                buffer.force();
+            }
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // True if a complete record with a matching checksum starts at the offset
+    private static boolean isValidRecord(ByteBuffer buffer, int offset, int limit) {
+        if (offset + RECORD_HEADER_BYTES > limit) {
+            return false;
+        }
+        int payloadBytes = buffer.getInt(offset);
+        return payloadBytes > 0 && payloadBytes <= limit - offset - RECORD_HEADER_BYTES
+                && checksum(buffer, offset + RECORD_HEADER_BYTES, payloadBytes) == buffer.getInt(offset + 4);
+    }
+
+    // Offset of the first valid record at or after from, or -1 if there is none
+    private static int findNextRecord(ByteBuffer buffer, int from, int limit) {
+        for (int offset = from; offset + RECORD_HEADER_BYTES <= limit; offset++) {
+            if (isValidRecord(buffer, offset, limit)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static void zero(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private static void replay(Segment segment, ByteBuffer buffer, int offset) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset + RECORD_HEADER_BYTES);
+        byte type = in.get();
+        in.getLong(); // Saved at
+        String studentId = getText(in);
+        String major = getText(in);
+
+        Map<String, Integer> majors = segment.index.get(studentId);
+        Integer previous = majors == null ? null : majors.get(major);
+        if (previous != null) {
+            segment.liveBytes -= recordBytes(buffer, previous);
+            majors.remove(major);
+        }
+        if (type == TYPE_PLAN) {
+            segment.index.computeIfAbsent(studentId, id -> new ConcurrentHashMap<>()).put(major, offset);
+            segment.liveBytes += recordBytes(buffer, offset);
+        }
+    }
+
+    private static StoredPlan decode(ByteBuffer buffer, int offset) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset + RECORD_HEADER_BYTES);
+        in.get(); // Type, the index only points at plans
+        long savedAtMillis = in.getLong();
+        String studentId = getText(in);
+        String major = getText(in);
+
+        DegreePlan plan = new DegreePlan();
+        int semesterCount = in.getShort() & 0xFFFF;
+        for (int s = 0; s < semesterCount; s++) {
+            int courseCount = in.getShort() & 0xFFFF;
+            List<String> courses = new ArrayList<>(courseCount);
+            for (int c = 0; c < courseCount; c++) {
+                long packedId = in.getLong();
+                courses.add(packedId == TEXT_ID_MARKER ? getText(in) : CourseIds.unpack(packedId));
+            }
+            plan.addSemester(courses);
+        }
+        return new StoredPlan(studentId, major, savedAtMillis, plan);
+    }
+
+    private static int recordBytes(ByteBuffer buffer, int offset) {
+        return RECORD_HEADER_BYTES + buffer.getInt(offset);
+    }
+
+    private static int checksum(ByteBuffer buffer, int start, int length) {
+        ByteBuffer region = buffer.duplicate();
+        region.position(start).limit(start + length);
+        CRC32 crc = new CRC32();
+        crc.update(region);
+        return (int) crc.getValue();
+    }
+
+    private static void putText(ByteBuffer out, byte[] text) {
+        out.putShort((short) text.length);
+        out.put(text);
+    }
+
+    private static String getText(ByteBuffer in) {
+        byte[] text = new byte[in.getShort() & 0xFFFF];
+        in.get(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] textBytes(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_BYTES) {
+            throw new IllegalArgumentException("Text is too long to store: " + text.substring(0, 32) + "...");
+        }
+        return bytes;
+    }
+
+    private static String checkKey(String key, String what) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException(what + " cannot be blank.");
+        }
+        textBytes(key);
+        return key;
+    }
+
+    private static void checkCount(int count, String what) {
+        if (count > 0xFFFF) {
+            throw new IllegalArgumentException("Too many " + what + " to store: " + count);
+        }
+    }
+
+    private static void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    // The mapped log file and the index of its records
+    private static final class Segment {
+        private final FileChannel channel;
+        private volatile MappedByteBuffer buffer;
+        // Student ID to major to offset of the latest record
+        private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> index = new ConcurrentHashMap<>();
+        // Only written by the writer thread (or during recovery)
+        private volatile int tail = FILE_HEADER_BYTES;
+        private volatile long liveBytes;
+        private volatile boolean directoryUnsynced; // Renamed into place but the rename isn't flushed yet
+
+        Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Request {
+        private final byte type;
+        private final String studentId;
+        private final String major;
+        private final DegreePlan plan;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private int offset; // Set by the writer once appended
+        private int recordBytes;
+
+        Request(byte type, String studentId, String major, DegreePlan plan) {
+            this.type = type;
+            this.studentId = studentId;
+            this.major = major;
+            this.plan = plan;
+        }
+    }
+
+    /**
+     * Writes synthetic plans from several threads, then times lookups, reopening
+     * (log replay) and compaction.
+     * Usage: PlanStore [file] [students] [threads]
+     */
+    public static void main(String[] args) throws Exception {
+        Path path = Paths.get(args.length > 0 ? args[0] : "plans.log");
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        String[] majors = { "CSCI", "NETS", "CMPE" };
+
+        try (PlanStore store = new PlanStore(path, 0, 0.5)) {
+            long start = System.nanoTime();
+            ExecutorService clients = Executors.newFixedThreadPool(threads);
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                done.add(clients.submit(() -> {
+                    List<CompletableFuture<Void>> writes = new ArrayList<>();
+                    for (int i = first; i < students; i += threads) {
+                        writes.add(store.put("S" + i, majors[i % majors.length], samplePlan(i)));
+                    }
+                    CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+            clients.shutdown();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("Wrote %d plans in %.2f s (%.0f plans/s), log %d bytes", students,
+                    seconds, students / seconds, store.getLogBytes()));
+
+            // Re-plan a third of the students so compaction has something to drop
+            for (int i = 0; i < students; i += 3) {
+                store.put("S" + i, majors[i % majors.length], samplePlan(i + 1));
+            }
+            store.save("S0", majors[0], samplePlan(1));
+
+            start = System.nanoTime();
+            Random random = new Random(1);
+            for (int i = 0; i < students; i++) {
+                int student = random.nextInt(students);
+                store.get("S" + student, majors[student % majors.length]);
+            }
+            seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("Looked up %d plans in %.2f s (%.0f lookups/s)", students, seconds,
+                    students / seconds));
+
+            start = System.nanoTime();
+            long before = store.getLogBytes();
+            store.compact();
+            System.out.println(String.format("Compacted %d -> %d bytes in %.0f ms", before, store.getLogBytes(),
+                    (System.nanoTime() - start) / 1e6));
+        }
+
+        long start = System.nanoTime();
+        try (PlanStore reopened = new PlanStore(path, 0, 0.5)) {
+            System.out.println(String.format("Reopened %d plans in %.0f ms", reopened.size(),
+                    (System.nanoTime() - start) / 1e6));
+        }
+    }
+
+    private static DegreePlan samplePlan(int seed) {
+        DegreePlan plan = new DegreePlan();
+        plan.addSemester(Arrays.asList("Writing Seminar", "CIS 1100", "MATH 1400", "CIS 1600"));
+        for (int s = 0; s < 6; s++) {
+            List<String> semester = new ArrayList<>();
+            for (int c = 0; c < 4; c++) {
+                semester.add("CIS " + (2000 + ((seed + s * 4 + c) % 40) * 10));
+            }
+            plan.addSemester(semester);
+        }
+        plan.addSemester(Arrays.asList("Senior Project I", "CIS 4710"));
+        plan.addSemester(Arrays.asList("Senior Project II"));
+        return plan;
+    }
+}
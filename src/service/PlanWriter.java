@@ -0,0 +1,442 @@
+package service;
+
+import model.Course;
+import model.CourseIds;
+import model.DegreePlan;
+import scheduler.Scheduler;
+import scheduler.SemesterListener;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Streams plans to an {@link OutputStream} as JSON lines, CSV or a compact
+ * binary form. Pass a writer to {@link Scheduler#generateDegreePlan(int, Set,
+ * SemesterListener)} and each semester is written as soon as the scheduler
+ * finalizes it, or use {@link #writePlan} for a plan that already exists.
+ *
+ * Output is encoded byte by byte into one reusable buffer, so writing a plan
+ * builds no intermediate strings. By default the buffer is flushed to the
+ * stream after every semester, so a reader tailing the output sees each
+ * semester as soon as it is final. That costs a write call per semester;
+ * {@link FlushPolicy#PLAN} flushes once per plan and
+ * {@link FlushPolicy#WHEN_FULL} only when the 64 KB buffer fills. Writing
+ * JSON lines to a file, that is about 1.5 times the plans per second of
+ * flushing every semester, so batch jobs that read the output afterwards
+ * should use it. Many
+ * plans can share one writer: call {@link #beginPlan} with a label (eg a
+ * student ID) before each one. Write failures surface as
+ * {@link UncheckedIOException} from the scheduler call.
+ *
+ * Formats:
+ * JSON lines: {"plan":"s1","semester":1,"courses":["CIS 1100","MATH 1400"]}
+ * per semester.
+ * CSV: a plan,semester,course header, then one row per course.
+ * Binary: 'P' label, then per semester 'S' index count and packed course
+ * IDs, then 'E' semester count. Labels and IDs without a packed form are
+ * written as a 16-bit length and UTF-8 bytes, and a packed ID of -1 means a
+ * text ID follows. Numbers are big-endian and semester indices are 0-based.
+ */
+public abstract class PlanWriter implements SemesterListener, Flushable, Closeable {
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long TEXT_ID_MARKER = -1L;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+    private int position;
+    private String label = "";
+    private FlushPolicy flushPolicy = FlushPolicy.SEMESTER;
+
+    // When buffered output is pushed to the stream, besides flush() and close()
+    public enum FlushPolicy {
+        SEMESTER, // After every semester, the default
+        PLAN, // After every finished plan
+        WHEN_FULL // Only when the buffer is full
+    }
+
+    PlanWriter(OutputStream out) {
+        this.out = Objects.requireNonNull(out, "Output stream cannot be null");
+    }
+
+    public static PlanWriter jsonLines(OutputStream out) {
+        return new JsonLinesWriter(out);
+    }
+
+    public static PlanWriter csv(OutputStream out) {
+        return new CsvWriter(out);
+    }
+
+    public static PlanWriter binary(OutputStream out) {
+        return new BinaryWriter(out);
+    }
+
+    // Writer for a format name: json, csv or binary
+    public static PlanWriter forFormat(String format, OutputStream out) {
+        switch (format.trim().toLowerCase()) {
+            case "json":
+            case "jsonl":
+                return jsonLines(out);
+            case "csv":
+                return csv(out);
+            case "binary":
+            case "bin":
+                return binary(out);
+            default:
+                throw new IllegalArgumentException("Unknown plan format '" + format + "', use json, csv or binary");
+        }
+    }
+
+    public PlanWriter setFlushPolicy(FlushPolicy flushPolicy) {
+        this.flushPolicy = Objects.requireNonNull(flushPolicy, "Flush policy cannot be null");
+        return this;
+    }
+
+    // Starts the next plan, its semesters are written under this label
+    public void beginPlan(String label) {
+        this.label = Objects.requireNonNull(label, "Plan label cannot be null");
+        try {
+            startPlan(this.label);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Writes a plan that has already been generated
+    public void writePlan(String label, DegreePlan plan) {
+        beginPlan(label);
+        List<List<String>> semesters = plan.getSemesters();
+        for (int i = 0; i < semesters.size(); i++) {
+            semesterFinalized(i, semesters.get(i));
+        }
+        planFinished(semesters.size());
+    }
+
+    @Override
+    public final void semesterFinalized(int semesterIndex, List<String> courses) {
+        try {
+            writeSemester(label, semesterIndex, courses);
+            if (flushPolicy == FlushPolicy.SEMESTER) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final void planFinished(int semesterCount) {
+        try {
+            endPlan(semesterCount);
+            if (flushPolicy != FlushPolicy.WHEN_FULL) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    abstract void startPlan(String label) throws IOException;
+
+    abstract void writeSemester(String label, int semesterIndex, List<String> courses) throws IOException;
+
+    abstract void endPlan(int semesterCount) throws IOException;
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    void writeByte(int b) throws IOException {
+        if (position == BUFFER_BYTES) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    // For literals that are known to be ASCII
+    void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    void writeDecimal(int value) throws IOException {
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            writeByte('0' + (value / divisor) % 10);
+        }
+    }
+
+    void writeShort(int value) throws IOException {
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (value >>> shift));
+        }
+    }
+
+    // UTF-8 encodes one code point, reading a surrogate pair if needed; returns chars consumed
+    int writeUtf8CodePoint(CharSequence text, int index) throws IOException {
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            writeByte(c);
+            return 1;
+        }
+        if (c < 0x800) {
+            writeByte(0xC0 | (c >> 6));
+            writeByte(0x80 | (c & 0x3F));
+            return 1;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+            writeByte(0xF0 | (codePoint >> 18));
+            writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            writeByte(0x80 | (codePoint & 0x3F));
+            return 2;
+        }
+        if (Character.isSurrogate(c)) {
+            writeByte('?'); // Unpaired surrogate, same replacement String.getBytes uses
+            return 1;
+        }
+        writeByte(0xE0 | (c >> 12));
+        writeByte(0x80 | ((c >> 6) & 0x3F));
+        writeByte(0x80 | (c & 0x3F));
+        return 1;
+    }
+
+    void writeUtf8(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length();) {
+            i += writeUtf8CodePoint(text, i);
+        }
+    }
+
+    // Length prefixed UTF-8, the length is counted first so nothing is copied
+    void writeText(CharSequence text) throws IOException {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        if (length > 0xFFFF) {
+            throw new IllegalArgumentException("Text is too long to write: " + length + " bytes");
+        }
+        writeShort(length);
+        writeUtf8(text);
+    }
+
+    private static final class JsonLinesWriter extends PlanWriter {
+        JsonLinesWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void startPlan(String label) {
+        }
+
+        @Override
+        void writeSemester(String label, int semesterIndex, List<String> courses) throws IOException {
+            writeAscii("{\"plan\":");
+            writeJsonString(label);
+            writeAscii(",\"semester\":");
+            writeDecimal(semesterIndex + 1);
+            writeAscii(",\"courses\":[");
+            for (int i = 0; i < courses.size(); i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                writeJsonString(courses.get(i));
+            }
+            writeAscii("]}\n");
+        }
+
+        @Override
+        void endPlan(int semesterCount) {
+        }
+
+        private void writeJsonString(String text) throws IOException {
+            writeByte('"');
+            for (int i = 0; i < text.length();) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') {
+                    writeByte('\\');
+                    writeByte(c);
+                    i++;
+                } else if (c < 0x20) {
+                    writeAscii("\\u00");
+                    writeByte(Character.forDigit(c >> 4, 16));
+                    writeByte(Character.forDigit(c & 0xF, 16));
+                    i++;
+                } else {
+                    i += writeUtf8CodePoint(text, i);
+                }
+            }
+            writeByte('"');
+        }
+    }
+
+    private static final class CsvWriter extends PlanWriter {
+        private boolean headerWritten;
+
+        CsvWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void startPlan(String label) throws IOException {
+            if (!headerWritten) {
+                writeAscii("plan,semester,course\n");
+                headerWritten = true;
+            }
+        }
+
+        @Override
+        void writeSemester(String label, int semesterIndex, List<String> courses) throws IOException {
+            startPlan(label); // Header, in case no plan was begun
+            for (String course : courses) {
+                writeField(label);
+                writeByte(',');
+                writeDecimal(semesterIndex + 1);
+                writeByte(',');
+                writeField(course);
+                writeByte('\n');
+            }
+        }
+
+        @Override
+        void endPlan(int semesterCount) {
+        }
+
+        // Quotes a field only when it contains a separator, quote or line break
+        private void writeField(String text) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char c = text.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writeUtf8(text);
+                return;
+            }
+            writeByte('"');
+            for (int i = 0; i < text.length();) {
+                if (text.charAt(i) == '"') {
+                    writeByte('"');
+                }
+                i += writeUtf8CodePoint(text, i);
+            }
+            writeByte('"');
+        }
+    }
+
+    private static final class BinaryWriter extends PlanWriter {
+        BinaryWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void startPlan(String label) throws IOException {
+            writeByte('P');
+            writeText(label);
+        }
+
+        @Override
+        void writeSemester(String label, int semesterIndex, List<String> courses) throws IOException {
+            writeByte('S');
+            writeShort(semesterIndex);
+            writeShort(courses.size());
+            for (String course : courses) {
+                long packedId = CourseIds.lookup(course); // Never registers request text
+                if (CourseIds.isStandard(packedId)) {
+                    writeLong(packedId);
+                } else {
+                    writeLong(TEXT_ID_MARKER);
+                    writeText(course);
+                }
+            }
+        }
+
+        @Override
+        void endPlan(int semesterCount) throws IOException {
+            writeByte('E');
+            writeShort(semesterCount);
+        }
+    }
+
+    /**
+     * Streams plans for a synthetic major straight from the scheduler into a
+     * file and reports throughput.
+     * Usage: PlanWriter [json|csv|binary] [plans] [file] [semester|plan|when_full]
+     */
+    public static void main(String[] args) throws IOException {
+        String format = args.length > 0 ? args[0] : "json";
+        int plans = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        File file = new File(args.length > 2 ? args[2] : "plans." + format);
+        FlushPolicy flushPolicy = args.length > 3 ? FlushPolicy.valueOf(args[3].trim().toUpperCase())
+                : FlushPolicy.SEMESTER;
+
+        List<Course> courses = new ArrayList<>();
+        courses.add(new Course("Writing Seminar", "Writing Seminar", Collections.emptyList()));
+        courses.add(new Course("Senior Project I", "Senior Project I", Collections.emptyList()));
+        courses.add(new Course("Senior Project II", "Senior Project II", Collections.emptyList()));
+        for (int i = 0; i < 32; i++) {
+            String id = "CIS " + (1000 + (i / 8) * 1000 + (i % 8) * 10);
+            List<List<String>> prerequisites = new ArrayList<>();
+            if (i >= 8) {
+                prerequisites.add(Collections.singletonList("CIS " + (1000 + (i / 8 - 1) * 1000 + (i % 8) * 10)));
+            }
+            courses.add(new Course(id, "Course " + i, prerequisites));
+        }
+        Scheduler scheduler = new Scheduler(courses);
+
+        long start = System.nanoTime();
+        try (PlanWriter writer = forFormat(format, new FileOutputStream(file)).setFlushPolicy(flushPolicy)) {
+            for (int i = 0; i < plans; i++) {
+                writer.beginPlan("S" + i);
+                scheduler.generateDegreePlan(4 + i % 4, Collections.emptySet(), writer);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("Wrote %d %s plans (%d bytes, flush policy %s) in %.2f s, %.0f plans/s",
+                plans, format, file.length(), flushPolicy.name().toLowerCase(), seconds, plans / seconds));
+    }
+}
@@ -0,0 +1,431 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Course;
+import model.DegreePlan;
+import scheduler.BottleneckAnalyzer;
+import scheduler.InfeasiblePlanException;
+import scheduler.PlanOptimizer;
+import scheduler.PrereqGraph;
+import scheduler.Scheduler;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless HTTP mode of the planner. Unlike the interactive
+ * {@link ui.DegreePlannerUI}, one JVM serves many users at once. Catalogs and
+ * graphs come from a {@link CatalogManager}, which keeps every major warm in
+ * memory.
+ *
+ * Endpoints (all responses are JSON):
+ * GET /majors lists the majors currently loaded
+ * GET /majors/{code} loads a major (if needed) and returns its courses
+ * GET /plan?major=CSCI&maxPerSemester=5&completed=CIS 1100,MATH 1400
+ * (optionally &maxSemesters=8&pinned=CIS 3200:3, pinned semesters are 1-based,
+ * and &optimize=true to rebalance the plan by units, capped by &maxUnits)
+ * GET /prereqs?major=CSCI&course=CIS 1200
+ * GET /bottlenecks?maxPerSemester=5 ranks the courses that gate the most work
+ * in every loaded major (optionally &majors=CSCI,NETS to pick majors, &top=10)
+ *
+ * With a {@link PlanStore}, /plan also accepts &student=ID to save the plan,
+ * and GET /plans?student=ID (optionally &major=CSCI) returns saved plans.
+ */
+public class PlannerServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final long OPTIMIZE_BUDGET_MILLIS = 200; // Per /plan?optimize=true request
+    private static final int OPTIMIZER_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_BOTTLENECK_TOP = 10; // Courses listed per major by /bottlenecks
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    // Optimizer searches spin for their whole budget, so they get their own pool
+    private final ExecutorService optimizerExecutor;
+    private final CatalogManager catalogManager;
+    private final PlanStore planStore; // Null when plans aren't saved
+
+    public PlannerServer(int port, CatalogManager catalogManager) throws IOException {
+        this(port, catalogManager, null);
+    }
+
+    public PlannerServer(int port, CatalogManager catalogManager, PlanStore planStore) throws IOException {
+        this.catalogManager = catalogManager;
+        this.planStore = planStore;
+        this.server = createHttpServer(new InetSocketAddress(port));
+        this.requestExecutor = newRequestExecutor();
+        server.setExecutor(requestExecutor);
+        this.optimizerExecutor = Executors.newFixedThreadPool(OPTIMIZER_THREADS,
+                DaemonThreads.named("plan-optimizer"));
+        server.createContext("/majors", this::handleMajors);
+        server.createContext("/plan", this::handlePlan);
+        server.createContext("/prereqs", this::handlePrereqs);
+        server.createContext("/bottlenecks", this::handleBottlenecks);
+        if (planStore != null) {
+            server.createContext("/plans", this::handlePlans);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdown();
+        optimizerExecutor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // The JDK server writes headers and body separately, so without TCP_NODELAY every
+    // keep-alive response waits about 40 ms on Nagle's algorithm and delayed ACKs.
+    // The switch is JVM-wide and read once, so it is left to the launch command:
+    // java -Dsun.net.httpserver.nodelay=true ...
+    static HttpServer createHttpServer(InetSocketAddress address) throws IOException {
+        return HttpServer.create(address, 0);
+    }
+
+    // Uses a virtual thread per request when the running JDK supports it (21+),
+    // otherwise falls back to a cached platform thread pool
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handleMajors(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String majorCode = path.length() > "/majors/".length() ? path.substring("/majors/".length()) : "";
+
+        if (majorCode.isEmpty()) {
+            StringBuilder json = new StringBuilder("{\"majors\":");
+            Json.stringArray(json, catalogManager.getLoadedMajors());
+            json.append(",\"supported\":");
+            Json.stringArray(json, catalogManager.getSupportedMajors()).append('}');
+            respond(exchange, 200, json.toString());
+            return;
+        }
+
+        respondWith(exchange, () -> {
+            MajorCatalog catalog = catalogManager.getCatalog(majorCode);
+            StringBuilder json = new StringBuilder("{\"major\":");
+            Json.string(json, catalog.getMajorCode());
+            json.append(",\"courseCount\":").append(catalog.getCourses().size());
+            json.append(",\"courses\":[");
+            List<Course> courses = catalog.getCourses();
+            for (int i = 0; i < courses.size(); i++) {
+                Course course = courses.get(i);
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"id\":");
+                Json.string(json, course.getCourseId());
+                json.append(",\"name\":");
+                Json.string(json, course.getName());
+                json.append(",\"prerequisites\":");
+                Json.nestedStringArray(json, course.getPrerequisites());
+                json.append('}');
+            }
+            return json.append("]}").toString();
+        });
+    }
+
+    private void handlePlan(HttpExchange exchange) throws IOException {
+        respondWith(exchange, () -> {
+            Map<String, String> query = parseQuery(exchange);
+            String majorCode = requireParam(query, "major");
+            int maxPerSemester;
+            try {
+                maxPerSemester = Integer.parseInt(requireParam(query, "maxPerSemester"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("maxPerSemester must be a whole number");
+            }
+            String studentId = query.get("student");
+            if (studentId != null && planStore == null) {
+                throw new IllegalArgumentException("Saving plans is not enabled on this server");
+            }
+            Set<String> completed = new HashSet<>();
+            for (String courseId : query.getOrDefault("completed", "").split(",")) {
+                if (!courseId.isBlank()) {
+                    completed.add(courseId.trim().toUpperCase());
+                }
+            }
+            Map<String, Integer> pinned = new HashMap<>();
+            for (String pin : query.getOrDefault("pinned", "").split(",")) {
+                int colon = pin.lastIndexOf(':');
+                if (pin.isBlank()) {
+                    continue;
+                }
+                try {
+                    pinned.put(pin.substring(0, colon).trim().toUpperCase(),
+                            Integer.parseInt(pin.substring(colon + 1).trim()) - 1);
+                } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                    throw new IllegalArgumentException("pinned entries must look like 'CIS 3200:3'");
+                }
+            }
+            MajorCatalog catalog = catalogManager.getCatalog(majorCode);
+
+            Scheduler scheduler = new Scheduler(catalog.getGraph());
+            DegreePlan plan;
+            if (query.containsKey("maxSemesters")) {
+                int maxSemesters;
+                try {
+                    maxSemesters = Integer.parseInt(query.get("maxSemesters"));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("maxSemesters must be a whole number");
+                }
+                // Requests the windows rule out are a 400, plans that still miss the deadline or a pin a 422
+                plan = scheduler.generateDegreePlan(maxPerSemester, maxSemesters, completed, pinned);
+            } else if (!pinned.isEmpty()) {
+                throw new IllegalArgumentException("pinned requires maxSemesters");
+            } else {
+                plan = scheduler.generateDegreePlan(maxPerSemester, completed);
+            }
+            boolean optimize = Boolean.parseBoolean(query.get("optimize"));
+            if (optimize) {
+                if (!pinned.isEmpty()) {
+                    throw new IllegalArgumentException("optimize cannot be combined with pinned");
+                }
+                double maxUnits = maxPerSemester * Course.DEFAULT_UNITS;
+                if (query.containsKey("maxUnits")) {
+                    try {
+                        maxUnits = Double.parseDouble(query.get("maxUnits"));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("maxUnits must be a number");
+                    }
+                }
+                // Keeps the semester count, so a maxSemesters deadline still holds
+                PlanOptimizer optimizer = new PlanOptimizer(catalog.getGraph(), maxUnits, completed,
+                        OPTIMIZER_THREADS, optimizerExecutor);
+                plan = optimizer.optimize(plan, OPTIMIZE_BUDGET_MILLIS);
+            }
+            if (studentId != null) {
+                planStore.save(studentId.trim(), catalog.getMajorCode(), plan);
+            }
+
+            StringBuilder json = new StringBuilder("{\"major\":");
+            Json.string(json, catalog.getMajorCode());
+            json.append(",\"maxPerSemester\":").append(maxPerSemester);
+            json.append(",\"optimized\":").append(optimize);
+            json.append(",\"completed\":");
+            Json.stringArray(json, new TreeSet<>(completed));
+            json.append(",\"semesters\":");
+            Json.nestedStringArray(json, plan.getSemesters());
+            return json.append('}').toString();
+        });
+    }
+
+    private void handlePrereqs(HttpExchange exchange) throws IOException {
+        respondWith(exchange, () -> {
+            Map<String, String> query = parseQuery(exchange);
+            String majorCode = requireParam(query, "major");
+            String courseId = requireParam(query, "course").trim().toUpperCase();
+            MajorCatalog catalog = catalogManager.getCatalog(majorCode);
+            Course course = catalog.getCoursesMap().get(courseId);
+            if (course == null) {
+                throw new NoSuchElementException("Course '" + courseId + "' is not part of "
+                        + catalog.getMajorCode());
+            }
+
+            StringBuilder json = new StringBuilder("{\"course\":");
+            Json.string(json, course.getCourseId());
+            json.append(",\"name\":");
+            Json.string(json, course.getName());
+            json.append(",\"prerequisites\":");
+            Json.nestedStringArray(json, course.getPrerequisites());
+            json.append(",\"graphPrerequisites\":");
+            Json.stringArray(json, catalog.getGraph().getPrereqs(courseId));
+            return json.append('}').toString();
+        });
+    }
+
+    private void handleBottlenecks(HttpExchange exchange) throws IOException {
+        respondWith(exchange, () -> {
+            Map<String, String> query = parseQuery(exchange);
+            int maxPerSemester;
+            int top;
+            try {
+                maxPerSemester = Integer.parseInt(requireParam(query, "maxPerSemester"));
+                top = Integer.parseInt(query.getOrDefault("top", String.valueOf(DEFAULT_BOTTLENECK_TOP)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("maxPerSemester and top must be whole numbers");
+            }
+            if (top <= 0) {
+                throw new IllegalArgumentException("top must be positive");
+            }
+            // Named majors are loaded on demand, otherwise only the majors already warm are analysed
+            List<String> majors = query.containsKey("majors") ? Arrays.asList(query.get("majors").split(","))
+                    : catalogManager.getLoadedMajors();
+            Map<String, PrereqGraph> graphs = new LinkedHashMap<>();
+            for (String major : majors) {
+                if (!major.isBlank()) {
+                    MajorCatalog catalog = catalogManager.getCatalog(major);
+                    graphs.put(catalog.getMajorCode(), catalog.getGraph());
+                }
+            }
+            if (graphs.isEmpty()) {
+                throw new NoSuchElementException("No majors are loaded yet");
+            }
+            BottleneckAnalyzer.Report report = new BottleneckAnalyzer(graphs, maxPerSemester).analyze();
+
+            StringBuilder json = new StringBuilder("{\"maxPerSemester\":").append(maxPerSemester);
+            json.append(",\"majors\":[");
+            boolean first = true;
+            for (String major : graphs.keySet()) {
+                json.append(first ? "" : ",").append("{\"major\":");
+                Json.string(json, major);
+                json.append(",\"courses\":");
+                appendBottlenecks(json, report, report.getRanked(major), top, false);
+                json.append('}');
+                first = false;
+            }
+            json.append("],\"acrossMajors\":");
+            appendBottlenecks(json, report, report.getRankedAcrossMajors(), top, true);
+            return json.append('}').toString();
+        });
+    }
+
+    private static void appendBottlenecks(StringBuilder json, BottleneckAnalyzer.Report report,
+            List<BottleneckAnalyzer.CourseStats> ranked, int top, boolean acrossMajors) {
+        json.append('[');
+        for (int i = 0; i < top && i < ranked.size(); i++) {
+            BottleneckAnalyzer.CourseStats stats = ranked.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"course\":");
+            Json.string(json, stats.getCourseId());
+            json.append(",\"semestersSaved\":").append(stats.getSemestersSaved());
+            json.append(",\"descendants\":").append(stats.getDescendants());
+            json.append(",\"betweenness\":").append(Math.round(stats.getBetweenness() * 10) / 10.0);
+            json.append(",\"critical\":").append(stats.isCritical());
+            if (acrossMajors) {
+                json.append(",\"criticalMajors\":").append(report.getCriticalMajorCount(stats.getCourseId()));
+            }
+            json.append('}');
+        }
+        json.append(']');
+    }
+
+    private void handlePlans(HttpExchange exchange) throws IOException {
+        respondWith(exchange, () -> {
+            Map<String, String> query = parseQuery(exchange);
+            String studentId = requireParam(query, "student").trim();
+            List<PlanStore.StoredPlan> plans;
+            if (query.containsKey("major")) {
+                PlanStore.StoredPlan stored = planStore.get(studentId, query.get("major").trim().toUpperCase());
+                plans = stored == null ? Collections.emptyList() : Collections.singletonList(stored);
+            } else {
+                plans = planStore.getPlansForStudent(studentId);
+            }
+            if (plans.isEmpty()) {
+                throw new NoSuchElementException("No saved plans for student '" + studentId + "'");
+            }
+
+            StringBuilder json = new StringBuilder("{\"student\":");
+            Json.string(json, studentId);
+            json.append(",\"plans\":[");
+            for (int i = 0; i < plans.size(); i++) {
+                PlanStore.StoredPlan stored = plans.get(i);
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"major\":");
+                Json.string(json, stored.getMajor());
+                json.append(",\"savedAt\":").append(stored.getSavedAtMillis());
+                json.append(",\"semesters\":");
+                Json.nestedStringArray(json, stored.getPlan().getSemesters());
+                json.append('}');
+            }
+            return json.append("]}").toString();
+        });
+    }
+
+    private interface JsonResponder {
+        String respond() throws IOException;
+    }
+
+    // Maps failures to status codes so handlers only deal with the happy path
+    private void respondWith(HttpExchange exchange, JsonResponder responder) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            body = responder.respond();
+        } catch (NoSuchElementException e) {
+            status = 404;
+            body = Json.error(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = Json.error(e.getMessage());
+        } catch (InfeasiblePlanException e) {
+            status = 422;
+            body = Json.error(e.getMessage());
+        } catch (IOException e) {
+            status = 502;
+            body = Json.error("Could not load course data: " + e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = Json.error(String.valueOf(e.getMessage()));
+        }
+        respond(exchange, status, body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static String requireParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing required parameter '" + name + "'");
+        }
+        return value;
+    }
+
+    // Usage: PlannerServer [port] [priority majors, eg CSCI,NETS] [plan store file]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        List<String> priorityMajors = args.length > 1 ? Arrays.asList(args[1].split(",")) : Collections.emptyList();
+        PlanStore planStore = args.length > 2 ? new PlanStore(Paths.get(args[2])) : null;
+
+        CatalogManager catalogManager = new CatalogManager(priorityMajors, 2, TimeUnit.HOURS.toMillis(24));
+        catalogManager.start(); // Warms every major in the background while requests are served
+        PlannerServer plannerServer = new PlannerServer(port, catalogManager, planStore);
+        plannerServer.start();
+        System.out.println("Smart Degree Planner service listening on port " + plannerServer.getPort());
+    }
+}
@@ -1,13 +1,17 @@
 package ui;
 
+import java.util.ArrayList;
 import java.util.InputMismatchException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.io.IOException;
 
 import model.Course;
 import model.CourseDataLoader;
 import model.DegreePlan;
+import scheduler.MultiMajorPlanner;
 import scheduler.Scheduler;
 
 public class DegreePlannerUI {
@@ -17,10 +21,11 @@ public class DegreePlannerUI {
 
         String majorCode = "";
         List<Course> courses = null;
+        Map<String, List<Course>> coursesByMajor = new LinkedHashMap<>(); // Each major of a dual program
 
         // Loop until valid major courses are loaded
         while (courses == null || courses.isEmpty()) {
-            System.out.print("Enter BSE major (ex. CSCI, BE, etc.): ");
+            System.out.print("Enter BSE major (ex. CSCI, BE, etc., or CSCI+NETS for a dual major): ");
             majorCode = scanner.nextLine().trim(); // trim to remove accidental leadingtrailing spaces
 
             if (majorCode.equalsIgnoreCase("exit")) { // Allow user to exit
@@ -30,7 +35,21 @@ public class DegreePlannerUI {
             }
 
             try {
-                courses = CourseDataLoader.findCoursesAndPrereqsInMajor(majorCode);
+                coursesByMajor.clear();
+                courses = new ArrayList<>();
+                for (String singleMajor : majorCode.split("\\+")) {
+                    String code = singleMajor.trim().toUpperCase();
+                    if (code.isEmpty() || coursesByMajor.containsKey(code)) {
+                        continue; // eg CSCI+CSCI is just CSCI
+                    }
+                    List<Course> majorCourses = CourseDataLoader.findCoursesAndPrereqsInMajor(code);
+                    if (majorCourses.isEmpty()) {
+                        courses.clear();
+                        break;
+                    }
+                    coursesByMajor.put(code, majorCourses);
+                    courses.addAll(majorCourses);
+                }
                 // System.out.println(courses);
                 if (courses.isEmpty()) {
                     System.out.println("No courses found for major '" + majorCode +
@@ -61,15 +80,27 @@ public class DegreePlannerUI {
             }
         }
 
-        Scheduler scheduler = new Scheduler(courses);
-        DegreePlan plan = scheduler.generateDegreePlan(maxPerSem);
+        DegreePlan plan;
+        MultiMajorPlanner.MergedProgram merged = null;
+        if (coursesByMajor.size() > 1) {
+            // Shared courses are scheduled once across the majors
+            MultiMajorPlanner planner = new MultiMajorPlanner(coursesByMajor);
+            merged = planner.merge(coursesByMajor.keySet());
+            plan = planner.generateDegreePlan(coursesByMajor.keySet(), maxPerSem);
+        } else {
+            Scheduler scheduler = new Scheduler(courses);
+            plan = scheduler.generateDegreePlan(maxPerSem);
+        }
 
-        System.out.println("\nRecommended semester-by-semester schedule for " + majorCode.toUpperCase() + ":");
+        System.out.println("\nRecommended semester-by-semester schedule for "
+                + String.join("+", coursesByMajor.keySet()) + ":");
         if (plan.getSemesters().isEmpty() && !courses.isEmpty()) {
             System.out.println("Could not generate a schedule. This might be due to issues with course data, " +
                     "unsatisfiable prerequisites, or a cycle detected earlier.");
         } else if (plan.getSemesters().isEmpty() && courses.isEmpty()) {
             System.out.println("No schedule to display as no courses were loaded.");
+        } else if (merged != null) {
+            merged.printPlan(plan);
         } else {
             plan.printPlan();
         }